@@ -0,0 +1,316 @@
+package com.uor.engineering.labreschedulingsystem.config;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the indexes declared on the document classes, then explains every query shape issued
+ * by the repositories and reports any that would scan a whole collection or walk a whole index.
+ * Runs once all singletons exist, before the web server starts taking requests.
+ * app.mongo.index-verification is one of warn (default), fail or off.
+ *
+ * <p>Every derived or @Query repository method must have a shape in {@link #queryShapes()};
+ * methods found in the repository metadata without one are reported like a collection scan.
+ */
+@Configuration
+public class MongoIndexConfig implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final ListableBeanFactory beanFactory;
+
+    @Value("${app.mongo.index-verification:warn}")
+    private String verificationMode;
+
+    public MongoIndexConfig(MongoTemplate mongoTemplate, MongoMappingContext mappingContext,
+                            ListableBeanFactory beanFactory) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ensureIndexes();
+
+        if ("off".equalsIgnoreCase(verificationMode)) {
+            return;
+        }
+
+        List<QueryShape> shapes = queryShapes();
+        List<String> problems = new ArrayList<>();
+        Set<String> missing = undeclaredQueryMethods(shapes);
+        if (!missing.isEmpty()) {
+            problems.add("Repository queries without a declared query shape: " + String.join(", ", missing));
+        }
+
+        List<String> collectionScans = new ArrayList<>();
+        List<String> unselective = new ArrayList<>();
+        List<String> acceptedScans = new ArrayList<>();
+        for (QueryShape shape : shapes) {
+            if (shape.acceptedScan() != null) {
+                acceptedScans.add(shape.name() + " (" + shape.acceptedScan() + ")");
+                continue;
+            }
+            Document plan = explain(shape);
+            if (usesCollectionScan(plan)) {
+                collectionScans.add(shape.name());
+            } else if (shape.sort() == null && scansWholeIndex(plan)) {
+                unselective.add(shape.name());
+            }
+        }
+        if (!collectionScans.isEmpty()) {
+            problems.add("Queries without a supporting index (COLLSCAN): " + String.join(", ", collectionScans));
+        }
+        if (!unselective.isEmpty()) {
+            problems.add("Queries whose index bounds are unbounded on the leading key: " + String.join(", ", unselective));
+        }
+        if (!acceptedScans.isEmpty()) {
+            logger.info("Queries allowed to scan: {}", String.join(", ", acceptedScans));
+        }
+
+        if (problems.isEmpty()) {
+            logger.info("Verified {} repository query shapes, none scan a whole collection or index", shapes.size());
+            return;
+        }
+
+        String message = String.join("; ", problems);
+        if ("fail".equalsIgnoreCase(verificationMode)) {
+            throw new IllegalStateException(message);
+        }
+        logger.warn(message);
+    }
+
+    private void ensureIndexes() {
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(org.springframework.data.mongodb.core.mapping.Document.class)) {
+                continue;
+            }
+            IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+            resolver.resolveIndexFor(entity.getType()).forEach(indexOps::ensureIndex);
+        }
+    }
+
+    /**
+     * Derived and @Query methods of every repository, named "Entity.method", that have no shape.
+     * Methods backed by a custom fragment are not query methods and are listed by hand.
+     */
+    private Set<String> undeclaredQueryMethods(List<QueryShape> shapes) {
+        Set<String> declared = shapes.stream().map(QueryShape::name).collect(Collectors.toSet());
+        Set<String> missing = new TreeSet<>();
+        Repositories repositories = new Repositories(beanFactory);
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRepositoryInformationFor(domainType).orElse(null);
+            if (information == null) {
+                continue;
+            }
+            for (Method method : information.getQueryMethods()) {
+                String name = domainType.getSimpleName() + "." + method.getName();
+                if (!declared.contains(name)) {
+                    missing.add(name);
+                }
+            }
+        }
+        return missing;
+    }
+
+    private Document explain(QueryShape shape) {
+        Document find = new Document("find", shape.collection()).append("filter", shape.filter());
+        if (shape.sort() != null) {
+            find.append("sort", shape.sort());
+        }
+        return mongoTemplate.getDb().runCommand(
+                new Document("explain", find).append("verbosity", "queryPlanner"));
+    }
+
+    private static boolean usesCollectionScan(Object plan) {
+        if (plan instanceof Document document) {
+            if ("COLLSCAN".equals(document.get("stage"))) {
+                return true;
+            }
+            for (Object value : document.values()) {
+                if (usesCollectionScan(value)) {
+                    return true;
+                }
+            }
+        } else if (plan instanceof List<?> list) {
+            for (Object value : list) {
+                if (usesCollectionScan(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True when an index scan's bounds on the index's leading key reach MinKey or MaxKey, as with
+     * $ne or $nin, so the index is walked end to end rather than narrowing the query.
+     */
+    private static boolean scansWholeIndex(Object plan) {
+        if (plan instanceof Document document) {
+            if ("IXSCAN".equals(document.get("stage"))
+                    && document.get("keyPattern") instanceof Document keyPattern
+                    && document.get("indexBounds") instanceof Document bounds
+                    && !keyPattern.isEmpty()) {
+                Object leading = bounds.get(keyPattern.keySet().iterator().next());
+                if (leading instanceof List<?> ranges
+                        && ranges.stream().anyMatch(range -> String.valueOf(range).contains("MinKey")
+                        || String.valueOf(range).contains("MaxKey"))) {
+                    return true;
+                }
+            }
+            for (Object value : document.values()) {
+                if (scansWholeIndex(value)) {
+                    return true;
+                }
+            }
+        } else if (plan instanceof List<?> list) {
+            for (Object value : list) {
+                if (scansWholeIndex(value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One entry per derived or @Query repository method, named "Entity.method" (overloads share
+     * one), plus the custom fragment and MongoTemplate queries. A shape with an accepted-scan reason
+     * is listed but not explained.
+     */
+    static List<QueryShape> queryShapes() {
+        Date date = new Date();
+        Document createdDesc = new Document("createdAt", -1).append("_id", -1);
+        return List.of(
+                new QueryShape("RescheduleRequest.findByStudentId", "reschedule_requests",
+                        new Document("studentId", "x"), null),
+                new QueryShape("RescheduleRequest.findByStatus", "reschedule_requests",
+                        new Document("status", "PENDING"), null),
+                new QueryShape("RescheduleRequest.findByModuleCode", "reschedule_requests",
+                        new Document("moduleCode", "x"), null),
+                new QueryShape("RescheduleRequest.findConflictingRequests", "reschedule_requests",
+                        new Document("moduleCode", "x").append("requestedDate", "2024-01-01")
+                                .append("status", new Document("$nin", List.of("REJECTED", "APPEAL_REJECTED"))), null),
+                new QueryShape("RescheduleRequest.findByModuleCodeAndRequestedDateAndRequestedTimeSlot", "reschedule_requests",
+                        new Document("moduleCode", "x").append("requestedDate", "2024-01-01")
+                                .append("requestedTimeSlot", "08:00-11:00"), null),
+                new QueryShape("RescheduleRequest.findRequestedSlotsInRange", "reschedule_requests",
+                        new Document("moduleCode", "x").append("requestedDate",
+                                new Document("$gte", "2024-01-01").append("$lte", "2024-01-31")), null),
+                new QueryShape("RescheduleRequest.findSlotsByStatusInRange", "reschedule_requests",
+                        new Document("status", "APPROVED").append("requestedDate",
+                                new Document("$gte", "2024-01-01").append("$lte", "2024-01-07")), null),
+                new QueryShape("RescheduleRequest.findPage", "reschedule_requests",
+                        new Document(), createdDesc),
+                new QueryShape("RescheduleRequest.findPage(status)", "reschedule_requests",
+                        new Document("status", "PENDING"), createdDesc),
+                new QueryShape("RescheduleRequest.findPage(moduleCode)", "reschedule_requests",
+                        new Document("moduleCode", "x"), createdDesc),
+                new QueryShape("RescheduleRequest.findPage(studentId)", "reschedule_requests",
+                        new Document("studentId", "x"), createdDesc),
+                new QueryShape("RescheduleRequest.search", "reschedule_requests",
+                        new Document("$text", new Document("$search", "x")), null),
+                new QueryShape("Appeal.search", "appeals",
+                        new Document("$text", new Document("$search", "x")), null),
+                new QueryShape("Appeal.findByStudentId", "appeals",
+                        new Document("studentId", "x"), null),
+                new QueryShape("Appeal.findByStatus", "appeals",
+                        new Document("status", "PENDING"), null),
+                new QueryShape("Appeal.findByRequestId", "appeals",
+                        new Document("requestId", "x"), null),
+                new QueryShape("Appeal.findByStatusIn", "appeals",
+                        new Document("status", new Document("$in", List.of("APPROVED", "REJECTED"))), null),
+                new QueryShape("Module.findByModuleCode", "modules",
+                        new Document("moduleCode", "x"), null),
+                new QueryShape("Module.findByDepartmentAndSemester", "modules",
+                        new Document("department", "x").append("semester", 1), null),
+                new QueryShape("Module.findByActive", "modules",
+                        new Document("active", true), null, "low-cardinality flag over small reference data"),
+                new QueryShape("User.findByUsername", "users",
+                        new Document("username", "x"), null),
+                new QueryShape("User.findByEmail", "users",
+                        new Document("email", "x"), null),
+                new QueryShape("User.existsByUsername", "users",
+                        new Document("username", "x"), null),
+                new QueryShape("User.existsByEmail", "users",
+                        new Document("email", "x"), null),
+                new QueryShape("Appeal.findAllBy", "appeals",
+                        new Document(), null, "unfiltered list view"),
+                notUnavailable("Instructor.findByUnavailableDatesNotContaining", "instructors",
+                        new Document("unavailableDates", new Document("$ne", new Date()))),
+                notUnavailable("Instructor.findByUnavailableTimeSlotsNotContaining", "instructors",
+                        new Document("unavailableTimeSlots", new Document("$ne", "08:00-11:00"))),
+                notUnavailable("LabRoom.findByUnavailableDatesNotContaining", "lab_rooms",
+                        new Document("unavailableDates", new Document("$ne", new Date()))),
+                notUnavailable("LabRoom.findByUnavailableTimeSlotsNotContaining", "lab_rooms",
+                        new Document("unavailableTimeSlots", new Document("$ne", "08:00-11:00"))),
+                notUnavailable("TeachingAssistant.findByUnavailableDatesNotContaining", "teaching_assistants",
+                        new Document("unavailableDates", new Document("$ne", new Date()))),
+                notUnavailable("TeachingAssistant.findByUnavailableTimeSlotsNotContaining", "teaching_assistants",
+                        new Document("unavailableTimeSlots", new Document("$ne", "08:00-11:00"))),
+                resourceAvailable("Instructor.existsByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining", "instructors"),
+                resourceAvailable("Instructor.findByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining", "instructors"),
+                resourceAvailable("LabRoom.existsByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining", "lab_rooms"),
+                resourceAvailable("LabRoom.findByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining", "lab_rooms"),
+                resourceAvailable("TeachingAssistant.existsByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining", "teaching_assistants"),
+                resourceAvailable("TeachingAssistant.findByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining", "teaching_assistants"),
+                new QueryShape("SeatLedgerService.fullSessions", "seat_reservations",
+                        new Document("_id", new Document("$gte", "x|2024-01-01").append("$lt", "x|2024-02-01")), null),
+                new QueryShape("SlotHoldService.studentHolds", "slot_holds",
+                        new Document("studentId", "x").append("expiresAt", new Document("$gt", date)), null),
+                new QueryShape("RevokedToken.findByRevokedAtAfter", "revoked_tokens",
+                        new Document("revokedAt", new Document("$gt", date)), null),
+                new QueryShape("NotificationDispatcher.claimBatch", "notification_outbox",
+                        new Document("status", "PENDING").append("nextAttemptAt", new Document("$lte", date)),
+                        new Document("nextAttemptAt", 1)),
+                new QueryShape("NotificationDispatcher.findClaimed", "notification_outbox",
+                        new Document("claimedBy", "x"), null),
+                new QueryShape("NotificationDispatcher.releaseStaleClaims", "notification_outbox",
+                        new Document("status", "SENDING").append("claimedAt", new Document("$lt", date)), null)
+        );
+    }
+
+    /**
+     * "Not unavailable" is a negation, which no index narrows. The resource collections hold a few
+     * dozen documents and these queries are only the fallback while the availability index is not ready.
+     */
+    private static QueryShape resourceAvailable(String name, String collection) {
+        return notUnavailable(name, collection, new Document("unavailableDates", new Document("$ne", new Date()))
+                .append("unavailableTimeSlots", new Document("$ne", "08:00-11:00")));
+    }
+
+    private static QueryShape notUnavailable(String name, String collection, Document filter) {
+        return new QueryShape(name, collection, filter, null, "negation over small reference data");
+    }
+
+    record QueryShape(String name, String collection, Document filter, Document sort, String acceptedScan) {
+        QueryShape(String name, String collection, Document filter, Document sort) {
+            this(name, collection, filter, sort, null);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.uor.engineering.labreschedulingsystem.config;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Change streams and multi-document transactions need a replica set or sharded cluster;
+ * a standalone development server supports neither.
+ */
+@Component
+public class MongoTopology {
+    private static final Logger logger = LoggerFactory.getLogger(MongoTopology.class);
+
+    private final MongoTemplate mongoTemplate;
+    private volatile Boolean replicaSet;
+
+    public MongoTopology(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public boolean isReplicaSet() {
+        Boolean result = replicaSet;
+        if (result == null) {
+            result = detect();
+            replicaSet = result;
+        }
+        return result;
+    }
+
+    private boolean detect() {
+        try {
+            Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+            return hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+        } catch (RuntimeException e) {
+            logger.warn("Could not determine MongoDB topology: {}", e.getMessage());
+            return false;
+        }
+    }
+}
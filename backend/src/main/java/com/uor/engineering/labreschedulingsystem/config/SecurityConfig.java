@@ -3,6 +3,7 @@ package com.uor.engineering.labreschedulingsystem.config;
 import com.uor.engineering.labreschedulingsystem.security.JwtAuthenticationEntryPoint;
 import com.uor.engineering.labreschedulingsystem.security.JwtAuthenticationFilter;
 import com.uor.engineering.labreschedulingsystem.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -74,16 +75,23 @@ public class SecurityConfig {
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(jwtAuthenticationEntryPoint))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Streamed responses finish on an async re-dispatch, which the stateless JWT filter
+                        // does not authenticate; the original request was already authorized.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/files/**").permitAll()
                         .requestMatchers("/api/dashboard/**").hasAnyRole("STUDENT", "LAB_ADVISOR", "MODULE_COORDINATOR", "LAB_COORDINATOR", "ADMIN")
+                        .requestMatchers("/api/requests/export").hasAnyRole("MODULE_COORDINATOR", "LAB_COORDINATOR", "ADMIN")
                         .requestMatchers("/api/requests/**").hasAnyRole("STUDENT", "LAB_ADVISOR", "MODULE_COORDINATOR", "LAB_COORDINATOR", "ADMIN")
                         .requestMatchers("/api/appeals/**").hasAnyRole("STUDENT",  "ADMIN")
                         .requestMatchers("/api/appeals/review").hasRole("ADMIN")
                         .requestMatchers("/api/appeals/pending").hasRole("ADMIN")
                         .requestMatchers("/api/modules/**").hasAnyRole("LAB_ADVISOR", "MODULE_COORDINATOR", "LAB_COORDINATOR", "ADMIN")
+                        .requestMatchers("/api/resources/availability/**").hasAnyRole("STUDENT", "LAB_ADVISOR", "MODULE_COORDINATOR", "LAB_COORDINATOR", "ADMIN")
                         .requestMatchers("/api/resources/**").hasAnyRole("LAB_COORDINATOR", "ADMIN")
                         .requestMatchers("/api/users/**").hasRole("ADMIN")
+                        .requestMatchers("/api/metrics/**").hasRole("ADMIN")
+                        .requestMatchers("/api/events/**").hasAnyRole("STUDENT", "LAB_ADVISOR", "MODULE_COORDINATOR", "LAB_COORDINATOR", "ADMIN")
                         .requestMatchers("/api/instructors/**").hasAnyRole("LAB_COORDINATOR", "ADMIN","STUDENT")
                         .requestMatchers("/api/lab-rooms/**").hasAnyRole("LAB_COORDINATOR", "ADMIN","STUDENT")
                         .requestMatchers("/api/teaching-assistants/**").hasAnyRole("LAB_COORDINATOR", "ADMIN","STUDENT")
@@ -1,12 +1,18 @@
 package com.uor.engineering.labreschedulingsystem.controller;
 
+import com.uor.engineering.labreschedulingsystem.dto.AppealSummary;
+import com.uor.engineering.labreschedulingsystem.dto.KeysetPage;
 import com.uor.engineering.labreschedulingsystem.dto.MessageResponse;
+import com.uor.engineering.labreschedulingsystem.dto.StatusStatsDto;
 import com.uor.engineering.labreschedulingsystem.model.Appeal;
 import com.uor.engineering.labreschedulingsystem.model.AppealStatus;
 import com.uor.engineering.labreschedulingsystem.model.User;
 import com.uor.engineering.labreschedulingsystem.repository.AppealRepository;
 import com.uor.engineering.labreschedulingsystem.repository.UserRepository;
 import com.uor.engineering.labreschedulingsystem.security.UserPrincipal;
+import com.uor.engineering.labreschedulingsystem.service.NotificationOutboxService;
+import com.uor.engineering.labreschedulingsystem.service.StatisticsService;
+import com.uor.engineering.labreschedulingsystem.service.StatusEventService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -27,23 +33,47 @@ import org.springframework.beans.factory.annotation.Value;
 @RestController
 @RequestMapping("/api/appeals")
 public class AppealController {
+    private static final int MAX_SEARCH_LENGTH = 200;
+
     @Value("${app.upload.dir}")
     private String uploadDir;
 
+    @Value("${app.requests.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.requests.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.requests.max-search-results:500}")
+    private int maxSearchResults;
+
     @Autowired
     private AppealRepository appealRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private StatusEventService statusEventService;
+
+    @Autowired
+    private NotificationOutboxService notificationOutboxService;
+
     @GetMapping
     @PreAuthorize("hasRole('STUDENT') or hasRole('ADMIN')")
-    public List<Appeal> getAllAppeals(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+    public List<?> getAllAppeals(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                 @RequestParam(defaultValue = "full") String view) {
+        boolean summary = "summary".equalsIgnoreCase(view);
         if (userPrincipal.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_STUDENT"))) {
-            return appealRepository.findByStudentId(userPrincipal.getId());
+            return summary
+                    ? appealRepository.findByStudentId(userPrincipal.getId(), AppealSummary.class)
+                    : appealRepository.findByStudentId(userPrincipal.getId());
         }
-        return appealRepository.findAll();
+        return summary ? appealRepository.findAllBy(AppealSummary.class) : appealRepository.findAll();
     }
 
     private String formatRequestId(String requestId) {
@@ -57,6 +87,41 @@ public class AppealController {
         return requestId;
     }
 
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('ADMIN')")
+    public ResponseEntity<?> searchAppeals(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                           @RequestParam String q,
+                                           @RequestParam(required = false) Integer limit,
+                                           @RequestParam(required = false) String cursor) {
+        if (q.isBlank() || q.length() > MAX_SEARCH_LENGTH) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Search text must be 1 to " + MAX_SEARCH_LENGTH + " characters"));
+        }
+        int offset;
+        try {
+            offset = KeysetPage.decodeOffset(cursor, maxSearchResults);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Invalid cursor"));
+        }
+
+        boolean student = userPrincipal.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_STUDENT"));
+        int pageSize = Math.min(Math.min(limit != null && limit > 0 ? limit : defaultPageSize, maxPageSize),
+                maxSearchResults - offset);
+        return ResponseEntity.ok(KeysetPage.ofOffset(
+                appealRepository.search(q, student ? userPrincipal.getId() : null, offset, pageSize + 1),
+                offset, pageSize, maxSearchResults));
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('ADMIN')")
+    public StatusStatsDto getAppealStats(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                         @RequestParam(defaultValue = "false") boolean byWeek) {
+        boolean student = userPrincipal.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_STUDENT"));
+        return statisticsService.getAppealStats(student ? userPrincipal.getId() : null, byWeek);
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> createAppeal(@Valid @RequestBody Appeal appeal,
@@ -80,6 +145,7 @@ public class AppealController {
         }
 
         Appeal savedAppeal = appealRepository.save(appeal);
+        statusEventService.appealChanged(savedAppeal);
         return ResponseEntity.ok(savedAppeal);
     }
 
@@ -100,11 +166,17 @@ public class AppealController {
         }
 
         Appeal appeal = optionalAppeal.get();
+        AppealStatus previousStatus = appeal.getStatus();
         appeal.setStatus(appealDetails.getStatus());
         appeal.setPanelDecision(appealDetails.getPanelDecision());
         appeal.setUpdatedAt(LocalDateTime.now());
 
-        Appeal updatedAppeal = appealRepository.save(appeal);
+        Appeal updatedAppeal = notificationOutboxService.writeWithNotifications(
+                () -> appealRepository.save(appeal),
+                saved -> saved.getStatus() != previousStatus
+                        ? notificationOutboxService.appealReviewed(saved)
+                        : List.of());
+        statusEventService.appealChanged(updatedAppeal);
         return ResponseEntity.ok(updatedAppeal);
     }
 
@@ -137,7 +209,10 @@ public class AppealController {
         appeal.setUpdatedAt(LocalDateTime.now());
         appeal.setReviewedBy(userPrincipal.getUsername());
 
-        Appeal updatedAppeal = appealRepository.save(appeal);
+        Appeal updatedAppeal = notificationOutboxService.writeWithNotifications(
+                () -> appealRepository.save(appeal),
+                notificationOutboxService::appealReviewed);
+        statusEventService.appealChanged(updatedAppeal);
         return ResponseEntity.ok(updatedAppeal);
     }
 
@@ -168,7 +243,10 @@ public class AppealController {
 
     @GetMapping("/pending")
     @PreAuthorize("hasRole('ADMIN')")
-    public List<Appeal> getPendingAppeals() {
+    public List<?> getPendingAppeals(@RequestParam(defaultValue = "full") String view) {
+        if ("summary".equalsIgnoreCase(view)) {
+            return appealRepository.findByStatus(AppealStatus.PENDING, AppealSummary.class);
+        }
         return appealRepository.findByStatus(AppealStatus.PENDING);
     }
 }
\ No newline at end of file
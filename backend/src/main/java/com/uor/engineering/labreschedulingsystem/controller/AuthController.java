@@ -4,24 +4,29 @@ import com.uor.engineering.labreschedulingsystem.dto.JwtResponse;
 import com.uor.engineering.labreschedulingsystem.dto.LoginRequest;
 import com.uor.engineering.labreschedulingsystem.dto.MessageResponse;
 import com.uor.engineering.labreschedulingsystem.dto.SignupRequest;
-import com.uor.engineering.labreschedulingsystem.model.Role;
 import com.uor.engineering.labreschedulingsystem.model.User;
 import com.uor.engineering.labreschedulingsystem.repository.UserRepository;
 import com.uor.engineering.labreschedulingsystem.security.JwtUtils;
+import com.uor.engineering.labreschedulingsystem.security.TokenRevocationStore;
 import com.uor.engineering.labreschedulingsystem.security.UserPrincipal;
+import com.uor.engineering.labreschedulingsystem.service.LoginThrottledException;
+import com.uor.engineering.labreschedulingsystem.service.PasswordVerificationService;
+import com.uor.engineering.labreschedulingsystem.service.ServiceBusyException;
+import com.uor.engineering.labreschedulingsystem.service.UserImportService;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -29,7 +34,7 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/auth")
 public class AuthController {
     @Autowired
-    AuthenticationManager authenticationManager;
+    PasswordVerificationService passwordVerificationService;
 
     @Autowired
     UserRepository userRepository;
@@ -40,25 +45,52 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
-    @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+    @Autowired
+    TokenRevocationStore tokenRevocationStore;
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
+    @PostMapping("/signin")
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        return passwordVerificationService.authenticate(loginRequest.getUsername(), loginRequest.getPassword())
+                .<ResponseEntity<?>>thenApply(authentication -> {
+                    UserPrincipal userDetails = (UserPrincipal) authentication.getPrincipal();
+                    String jwt = jwtUtils.generateJwtToken(authentication,
+                            tokenRevocationStore.earliestIssuedAt(userDetails.getUsername()));
+
+                    List<String> roles = userDetails.getAuthorities().stream()
+                            .map(item -> item.getAuthority())
+                            .collect(Collectors.toList());
+
+                    return ResponseEntity.ok(new JwtResponse(jwt,
+                            userDetails.getId(),
+                            userDetails.getUsername(),
+                            userDetails.getEmail(),
+                            roles));
+                })
+                .exceptionally(this::signinFailure);
+    }
 
-        UserPrincipal userDetails = (UserPrincipal) authentication.getPrincipal();
-        List<String> roles = userDetails.getAuthorities().stream()
-                .map(item -> item.getAuthority())
-                .collect(Collectors.toList());
+    private ResponseEntity<?> signinFailure(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
 
-        return ResponseEntity.ok(new JwtResponse(jwt,
-                userDetails.getId(),
-                userDetails.getUsername(),
-                userDetails.getEmail(),
-                roles));
+        if (cause instanceof LoginThrottledException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+        if (cause instanceof ServiceBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+        if (cause instanceof AuthenticationException) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new MessageResponse("Error: " + cause.getMessage()));
+        }
+        if (cause instanceof RuntimeException e) {
+            throw e;
+        }
+        throw new IllegalStateException(cause);
     }
 
     @PostMapping("/signup")
@@ -76,45 +108,26 @@ public class AuthController {
         }
 
         // Create new user's account
-        User user = new User(signUpRequest.getUsername(),
-                signUpRequest.getEmail(),
-                encoder.encode(signUpRequest.getPassword()),
-                signUpRequest.getFirstName(),
-                signUpRequest.getLastName());
-
-        user.setStudentId(signUpRequest.getStudentId());
-        user.setDepartment(signUpRequest.getDepartment());
-        user.setSemester(signUpRequest.getSemester());
-
-        Set<String> strRoles = signUpRequest.getRole();
-        Set<Role> roles = new HashSet<>();
-
-        if (strRoles == null) {
-            roles.add(Role.ROLE_STUDENT);
-        } else {
-            strRoles.forEach(role -> {
-                switch (role) {
-                    case "admin":
-                        roles.add(Role.ROLE_ADMIN);
-                        break;
-                    case "lab_coordinator":
-                        roles.add(Role.ROLE_LAB_COORDINATOR);
-                        break;
-                    case "module_coordinator":
-                        roles.add(Role.ROLE_MODULE_COORDINATOR);
-                        break;
-                    case "lab_advisor":
-                        roles.add(Role.ROLE_LAB_ADVISOR);
-                        break;
-                    default:
-                        roles.add(Role.ROLE_STUDENT);
-                }
-            });
-        }
-
-        user.setRoles(roles);
+        User user = UserImportService.newUser(signUpRequest, encoder.encode(signUpRequest.getPassword()));
         userRepository.save(user);
 
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logoutUser(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String headerAuth) {
+        if (!StringUtils.hasText(headerAuth) || !headerAuth.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: No token provided!"));
+        }
+
+        String jwt = headerAuth.substring(7);
+        Claims claims = jwtUtils.parseJwtToken(jwt);
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new MessageResponse("Error: Invalid or expired token!"));
+        }
+
+        tokenRevocationStore.revokeToken(jwt, claims);
+        return ResponseEntity.ok(new MessageResponse("Logged out successfully!"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.uor.engineering.labreschedulingsystem.controller;
+
+import com.uor.engineering.labreschedulingsystem.security.JwtUtils;
+import com.uor.engineering.labreschedulingsystem.security.TokenRevocationStore;
+import com.uor.engineering.labreschedulingsystem.service.AvailabilityIndex;
+import com.uor.engineering.labreschedulingsystem.service.LabCalendarService;
+import com.uor.engineering.labreschedulingsystem.service.NotificationDispatcher;
+import com.uor.engineering.labreschedulingsystem.service.PasswordVerificationService;
+import com.uor.engineering.labreschedulingsystem.service.ReferenceDataCache;
+import com.uor.engineering.labreschedulingsystem.service.ResourceService;
+import com.uor.engineering.labreschedulingsystem.service.SeatLedgerService;
+import com.uor.engineering.labreschedulingsystem.service.SlotHoldService;
+import com.uor.engineering.labreschedulingsystem.service.StatusEventService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+@PreAuthorize("hasRole('ADMIN')")
+public class MetricsController {
+
+    private final JwtUtils jwtUtils;
+    private final PasswordVerificationService passwordVerificationService;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final StatusEventService statusEventService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final AvailabilityIndex availabilityIndex;
+    private final ResourceService resourceService;
+    private final SeatLedgerService seatLedgerService;
+    private final SlotHoldService slotHoldService;
+    private final LabCalendarService labCalendarService;
+    private final ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    public MetricsController(JwtUtils jwtUtils,
+                             PasswordVerificationService passwordVerificationService,
+                             TokenRevocationStore tokenRevocationStore,
+                             StatusEventService statusEventService,
+                             NotificationDispatcher notificationDispatcher,
+                             AvailabilityIndex availabilityIndex,
+                             ResourceService resourceService,
+                             SeatLedgerService seatLedgerService,
+                             SlotHoldService slotHoldService,
+                             LabCalendarService labCalendarService,
+                             ReferenceDataCache referenceDataCache) {
+        this.jwtUtils = jwtUtils;
+        this.passwordVerificationService = passwordVerificationService;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.statusEventService = statusEventService;
+        this.notificationDispatcher = notificationDispatcher;
+        this.availabilityIndex = availabilityIndex;
+        this.resourceService = resourceService;
+        this.seatLedgerService = seatLedgerService;
+        this.slotHoldService = slotHoldService;
+        this.labCalendarService = labCalendarService;
+        this.referenceDataCache = referenceDataCache;
+    }
+
+    @GetMapping
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("verifiedTokenCache", jwtUtils.getVerifiedTokenCacheStats());
+        metrics.put("passwordVerification", passwordVerificationService.getStats());
+        metrics.put("tokenRevocation", tokenRevocationStore.getStats());
+        metrics.put("statusEvents", statusEventService.getStats());
+        metrics.put("notifications", notificationDispatcher.getStats());
+        metrics.put("availabilityIndex", availabilityIndex.getStats());
+        metrics.put("availabilityChecks", resourceService.getCheckStats());
+        metrics.put("seatLedger", seatLedgerService.getStats());
+        metrics.put("slotHolds", slotHoldService.getStats());
+        metrics.put("labCalendar", labCalendarService.getStats());
+        metrics.put("referenceCache", referenceDataCache.getStats());
+        return metrics;
+    }
+}
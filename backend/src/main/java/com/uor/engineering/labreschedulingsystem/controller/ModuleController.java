@@ -3,6 +3,8 @@ package com.uor.engineering.labreschedulingsystem.controller;
 import com.uor.engineering.labreschedulingsystem.dto.MessageResponse;
 import com.uor.engineering.labreschedulingsystem.model.Module;
 import com.uor.engineering.labreschedulingsystem.repository.ModuleRepository;
+import com.uor.engineering.labreschedulingsystem.service.LabCalendarService;
+import com.uor.engineering.labreschedulingsystem.service.ReferenceDataCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -24,13 +26,17 @@ public class ModuleController {
     private ModuleRepository moduleRepository;
     @Autowired
     private RescheduleRequestRepository requestRepository;
+    @Autowired
+    private LabCalendarService labCalendarService;
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
     @GetMapping("/availability")
     @PreAuthorize("hasRole('LAB_COORDINATOR') or hasRole('ADMIN')")
     public ResponseEntity<?> checkLabAvailability(
             @RequestParam String moduleCode,
             @RequestParam String date) {
 
-        Optional<Module> module = moduleRepository.findByModuleCode(moduleCode);
+        Optional<Module> module = referenceDataCache.module(moduleCode);
         if (!module.isPresent()) {
             return ResponseEntity.badRequest().body(new MessageResponse("Module not found"));
         }
@@ -50,13 +56,19 @@ public class ModuleController {
 
     @GetMapping
     public List<Module> getAllModules() {
-        return moduleRepository.findAll();
+        return referenceDataCache.modules();
     }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> createModule(@Valid @RequestBody Module module) {
+        try {
+            labCalendarService.validate(module.getSessionRules());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
         Module savedModule = moduleRepository.save(module);
+        referenceDataCache.invalidate(ReferenceDataCache.MODULES);
         return ResponseEntity.ok(savedModule);
     }
 
@@ -75,16 +87,26 @@ public class ModuleController {
             return ResponseEntity.notFound().build();
         }
 
+        try {
+            labCalendarService.validate(moduleDetails.getSessionRules());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+
         Module module = optionalModule.get();
         module.setModuleName(moduleDetails.getModuleName());
         module.setDepartment(moduleDetails.getDepartment());
         module.setSemester(moduleDetails.getSemester());
         module.setCoordinator(moduleDetails.getCoordinator());
         module.setLabSessions(moduleDetails.getLabSessions());
+        module.setSessionRules(moduleDetails.getSessionRules());
+        module.setRequiredEquipment(moduleDetails.getRequiredEquipment());
+        module.setSeatsPerSession(moduleDetails.getSeatsPerSession());
         module.setActive(moduleDetails.isActive());
         module.setUpdatedAt(LocalDateTime.now());
 
         Module updatedModule = moduleRepository.save(module);
+        referenceDataCache.invalidate(ReferenceDataCache.MODULES);
         return ResponseEntity.ok(updatedModule);
     }
 
@@ -96,12 +118,13 @@ public class ModuleController {
         }
 
         moduleRepository.deleteById(id);
+        referenceDataCache.invalidate(ReferenceDataCache.MODULES);
         return ResponseEntity.ok(new MessageResponse("Module deleted successfully!"));
     }
 
     @GetMapping("/department/{department}/semester/{semester}")
     public List<Module> getModulesByDepartmentAndSemester(@PathVariable String department, 
                                                          @PathVariable int semester) {
-        return moduleRepository.findByDepartmentAndSemester(department, semester);
+        return referenceDataCache.cohortModules(department, semester);
     }
 }
\ No newline at end of file
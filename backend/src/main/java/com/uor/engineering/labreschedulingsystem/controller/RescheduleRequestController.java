@@ -1,63 +1,278 @@
 package com.uor.engineering.labreschedulingsystem.controller;
 
+import com.uor.engineering.labreschedulingsystem.dto.BulkTransitionDto;
+import com.uor.engineering.labreschedulingsystem.dto.ClashCheckDto;
+import com.uor.engineering.labreschedulingsystem.dto.KeysetPage;
 import com.uor.engineering.labreschedulingsystem.dto.MessageResponse;
+import com.uor.engineering.labreschedulingsystem.dto.RequestFilter;
+import com.uor.engineering.labreschedulingsystem.dto.RescheduleRequestSummary;
+import com.uor.engineering.labreschedulingsystem.dto.SlotHoldDto;
+import com.uor.engineering.labreschedulingsystem.dto.StatusStatsDto;
+import com.uor.engineering.labreschedulingsystem.dto.StatusTransitionDto;
 import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
 import com.uor.engineering.labreschedulingsystem.model.RequestStatus;
 import com.uor.engineering.labreschedulingsystem.repository.RescheduleRequestRepository;
 import com.uor.engineering.labreschedulingsystem.security.UserPrincipal;
+import com.uor.engineering.labreschedulingsystem.service.LabCalendarService;
+import com.uor.engineering.labreschedulingsystem.service.NotificationOutboxService;
+import com.uor.engineering.labreschedulingsystem.service.ReferenceDataCache;
+import com.uor.engineering.labreschedulingsystem.service.RequestExportService;
+import com.uor.engineering.labreschedulingsystem.service.RequestSubmissionService;
+import com.uor.engineering.labreschedulingsystem.service.RequestTransitionService;
+import com.uor.engineering.labreschedulingsystem.service.ResourceNotFoundException;
+import com.uor.engineering.labreschedulingsystem.service.SeatLedgerService;
+import com.uor.engineering.labreschedulingsystem.service.SlotHoldService;
+import com.uor.engineering.labreschedulingsystem.service.SlotUnavailableException;
+import com.uor.engineering.labreschedulingsystem.service.StatisticsService;
+import com.uor.engineering.labreschedulingsystem.service.StatusEventService;
+import com.uor.engineering.labreschedulingsystem.service.TransitionConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/requests")
 public class RescheduleRequestController {
 
+    private static final int MAX_SEARCH_LENGTH = 200;
+
     @Autowired
     private RescheduleRequestRepository requestRepository;
 
+    @Autowired
+    private RequestExportService requestExportService;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private RequestTransitionService requestTransitionService;
+
+    @Autowired
+    private StatusEventService statusEventService;
+
+    @Autowired
+    private NotificationOutboxService notificationOutboxService;
+
+    @Autowired
+    private SeatLedgerService seatLedgerService;
+
+    @Autowired
+    private SlotHoldService slotHoldService;
+
+    @Autowired
+    private RequestSubmissionService requestSubmissionService;
+
+    @Autowired
+    private LabCalendarService labCalendarService;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Value("${app.upload.dir}")
     private String uploadDir;
 
+    @Value("${app.requests.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.requests.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.requests.max-search-results:500}")
+    private int maxSearchResults;
+
+    @Value("${app.requests.max-bulk-size:500}")
+    private int maxBulkSize;
+
     private Path getRootLocation() {
         return Paths.get(uploadDir).toAbsolutePath().normalize();
     }
 
     @GetMapping
     @PreAuthorize("hasRole('STUDENT') or hasRole('LAB_ADVISOR') or hasRole('MODULE_COORDINATOR') or hasRole('LAB_COORDINATOR') or hasRole('ADMIN')")
-    public List<RescheduleRequest> getAllRequests(@AuthenticationPrincipal UserPrincipal userPrincipal) {
-        if (userPrincipal.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_STUDENT"))) {
-            return requestRepository.findByStudentId(userPrincipal.getId());
+    public ResponseEntity<?> getAllRequests(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) RequestStatus status,
+                                            @RequestParam(required = false) String moduleCode,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                            @RequestParam(defaultValue = "full") String view) {
+        boolean summary = isSummaryView(view);
+        boolean student = userPrincipal.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_STUDENT"));
+
+        LocalDateTime afterCreatedAt = null;
+        String afterId = null;
+        if (cursor != null) {
+            try {
+                String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+                afterCreatedAt = LocalDateTime.parse(position[0]);
+                afterId = position[1];
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Invalid cursor"));
+            }
+        }
+
+        int pageSize = Math.min(limit != null && limit > 0 ? limit : defaultPageSize, maxPageSize);
+        RequestFilter filter = new RequestFilter(student ? userPrincipal.getId() : null, status, moduleCode, from, to);
+
+        if (summary) {
+            return ResponseEntity.ok(findPage(filter, afterCreatedAt, afterId, pageSize, RescheduleRequestSummary.class,
+                    last -> last.getCreatedAt() + "|" + last.getId()));
         }
-        return requestRepository.findAll();
+        return ResponseEntity.ok(findPage(filter, afterCreatedAt, afterId, pageSize, RescheduleRequest.class,
+                last -> last.getCreatedAt() + "|" + last.getId()));
+    }
+
+    private <T> KeysetPage<T> findPage(RequestFilter filter, LocalDateTime afterCreatedAt, String afterId,
+                                       int pageSize, Class<T> type, Function<T, String> position) {
+        List<T> items = requestRepository.findPage(filter, afterCreatedAt, afterId, pageSize + 1, type);
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    position.apply(items.get(items.size() - 1)).getBytes(StandardCharsets.UTF_8));
+        }
+        return new KeysetPage<>(items, nextCursor, hasMore);
+    }
+
+    private static boolean isSummaryView(String view) {
+        return "summary".equalsIgnoreCase(view);
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('LAB_ADVISOR') or hasRole('MODULE_COORDINATOR') or hasRole('LAB_COORDINATOR') or hasRole('ADMIN')")
+    public ResponseEntity<?> searchRequests(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                            @RequestParam String q,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) String cursor) {
+        if (q.isBlank() || q.length() > MAX_SEARCH_LENGTH) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Search text must be 1 to " + MAX_SEARCH_LENGTH + " characters"));
+        }
+        int offset;
+        try {
+            offset = KeysetPage.decodeOffset(cursor, maxSearchResults);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Invalid cursor"));
+        }
+
+        boolean student = userPrincipal.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_STUDENT"));
+        int pageSize = Math.min(Math.min(limit != null && limit > 0 ? limit : defaultPageSize, maxPageSize),
+                maxSearchResults - offset);
+        return ResponseEntity.ok(KeysetPage.ofOffset(
+                requestRepository.search(q, student ? userPrincipal.getId() : null, offset, pageSize + 1),
+                offset, pageSize, maxSearchResults));
+    }
+
+    /**
+     * Whether the student has another module's lab at (date, timeSlot). Students check themselves;
+     * reviewers pass the studentId of the request. moduleCode, when given, is the module being
+     * rescheduled and is not counted as a clash.
+     */
+    @GetMapping("/clash-check")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('LAB_ADVISOR') or hasRole('MODULE_COORDINATOR') or hasRole('LAB_COORDINATOR') or hasRole('ADMIN')")
+    public ResponseEntity<?> checkClash(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                        @RequestParam String timeSlot,
+                                        @RequestParam(required = false) String moduleCode,
+                                        @RequestParam(required = false) String studentId,
+                                        @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        if (!labCalendarService.isConfigured()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new MessageResponse("The lab calendar has no term start configured"));
+        }
+        boolean student = userPrincipal.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_STUDENT"));
+        String subjectId = student || studentId == null ? userPrincipal.getId() : studentId;
+        Optional<ReferenceDataCache.Cohort> cohort = referenceDataCache.cohort(subjectId);
+        if (cohort.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        List<String> clashes = labCalendarService.clashingModules(
+                cohort.get().department(), cohort.get().semester(), date, timeSlot, moduleCode);
+        return ResponseEntity.ok(new ClashCheckDto(subjectId, date.toString(), timeSlot, clashes.isEmpty(), clashes));
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('LAB_ADVISOR') or hasRole('MODULE_COORDINATOR') or hasRole('LAB_COORDINATOR') or hasRole('ADMIN')")
+    public StatusStatsDto getRequestStats(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                          @RequestParam(defaultValue = "false") boolean byModule,
+                                          @RequestParam(defaultValue = "false") boolean byWeek) {
+        boolean student = userPrincipal.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_STUDENT"));
+        return statisticsService.getRequestStats(student ? userPrincipal.getId() : null, byModule, byWeek);
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('MODULE_COORDINATOR') or hasRole('LAB_COORDINATOR') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportRequests(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) RequestStatus status,
+            @RequestParam(required = false) String moduleCode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        RequestExportService.Format exportFormat = "csv".equalsIgnoreCase(format)
+                ? RequestExportService.Format.CSV : RequestExportService.Format.NDJSON;
+        RequestFilter filter = new RequestFilter(null, status, moduleCode, from, to);
+
+        String filename = "reschedule-requests." + (exportFormat == RequestExportService.Format.CSV ? "csv" : "ndjson");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat == RequestExportService.Format.CSV
+                        ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return response.body(out -> requestExportService.export(filter, exportFormat, gzip, out));
     }
 
     @PostMapping
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> createRequest(@Valid @RequestBody RescheduleRequest request,
+                                           @RequestParam(required = false) String holdId,
                                            @AuthenticationPrincipal UserPrincipal userPrincipal) {
         request.setStudentId(userPrincipal.getId());
         request.setStudentName(userPrincipal.getUsername());
         request.setStatus(RequestStatus.PENDING);
+        request.setVersion(null);
         request.setCreatedAt(LocalDateTime.now());
         request.setUpdatedAt(LocalDateTime.now());
 
@@ -72,10 +287,44 @@ public class RescheduleRequestController {
             }
         }
 
-        RescheduleRequest savedRequest = requestRepository.save(request);
+        RescheduleRequest savedRequest;
+        try {
+            savedRequest = requestSubmissionService.submit(request, userPrincipal.getId(), holdId);
+        } catch (SlotUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(e.getMessage()));
+        }
+        statusEventService.requestChanged(savedRequest);
         return ResponseEntity.ok(savedRequest);
     }
 
+    /**
+     * Holds a seat in the session for a few minutes; pass the hold id to createRequest to use it.
+     */
+    @PostMapping("/holds")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<?> holdSlot(@Valid @RequestBody SlotHoldDto session,
+                                      @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        try {
+            return ResponseEntity.ok(slotHoldService.hold(userPrincipal.getId(), session));
+        } catch (SlotUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(e.getMessage()));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Invalid date: " + session.getDate()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<?> releaseHold(@PathVariable String holdId,
+                                         @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        if (!slotHoldService.release(holdId, userPrincipal.getId())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new MessageResponse("Hold released"));
+    }
+
     @PostMapping("/upload")
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> uploadFile(@RequestParam("file") MultipartFile file) {
@@ -139,6 +388,11 @@ public class RescheduleRequestController {
         }
 
         RescheduleRequest request = optionalRequest.get();
+        if (requestDetails.getVersion() != null && !requestDetails.getVersion().equals(request.getVersion())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("Request was changed by another reviewer; reload and try again"));
+        }
+        RequestStatus previousStatus = request.getStatus();
         request.setLabAdvisorRecommendation(requestDetails.getLabAdvisorRecommendation());
         request.setModuleCoordinatorApproval(requestDetails.getModuleCoordinatorApproval());
         request.setLabCoordinatorApproval(requestDetails.getLabCoordinatorApproval());
@@ -147,31 +401,99 @@ public class RescheduleRequestController {
         request.setRejectionReason(requestDetails.getRejectionReason());
         request.setUpdatedAt(LocalDateTime.now());
 
-        RescheduleRequest updatedRequest = requestRepository.save(request);
-        return ResponseEntity.ok(updatedRequest);
+        boolean reopening = !SeatLedgerService.holdsSeat(previousStatus) && SeatLedgerService.holdsSeat(request.getStatus());
+        if (reopening && !seatLedgerService.claim(request)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("No seats are left in this session"));
+        }
+
+        try {
+            RescheduleRequest updatedRequest = notificationOutboxService.writeWithNotifications(
+                    () -> requestRepository.save(request),
+                    saved -> saved.getStatus() != previousStatus
+                            ? notificationOutboxService.requestDecided(saved)
+                            : List.of());
+            if (SeatLedgerService.holdsSeat(previousStatus) && !SeatLedgerService.holdsSeat(updatedRequest.getStatus())) {
+                seatLedgerService.release(updatedRequest);
+            }
+            statusEventService.requestChanged(updatedRequest);
+            return ResponseEntity.ok(updatedRequest);
+        } catch (OptimisticLockingFailureException e) {
+            if (reopening) {
+                seatLedgerService.release(request);
+            }
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("Request was changed by another reviewer; reload and try again"));
+        }
+    }
+
+    @PostMapping("/bulk-transition")
+    @PreAuthorize("hasRole('LAB_ADVISOR') or hasRole('MODULE_COORDINATOR') or hasRole('LAB_COORDINATOR') or hasRole('ADMIN')")
+    public ResponseEntity<?> bulkTransitionRequests(@Valid @RequestBody BulkTransitionDto bulkTransition,
+                                                    @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        if (bulkTransition.getIds().size() > maxBulkSize) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("At most " + maxBulkSize + " requests can be updated at once"));
+        }
+        try {
+            return ResponseEntity.ok(requestTransitionService.bulkTransition(
+                    bulkTransition.getIds(), bulkTransition.getTransition(), userPrincipal));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new MessageResponse(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/transition")
+    @PreAuthorize("hasRole('LAB_ADVISOR') or hasRole('MODULE_COORDINATOR') or hasRole('LAB_COORDINATOR') or hasRole('ADMIN')")
+    public ResponseEntity<?> transitionRequest(@PathVariable String id,
+                                               @Valid @RequestBody StatusTransitionDto transition,
+                                               @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        try {
+            return ResponseEntity.ok(requestTransitionService.transition(id, transition, userPrincipal));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (TransitionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(e.getMessage()));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new MessageResponse(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> deleteRequest(@PathVariable String id) {
-        if (!requestRepository.existsById(id)) {
+        Optional<RescheduleRequest> request = requestRepository.findById(id);
+        if (request.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
         requestRepository.deleteById(id);
+        seatLedgerService.release(request.get());
         return ResponseEntity.ok(new MessageResponse("Request deleted successfully!"));
     }
 
 
     @GetMapping("/student/{studentId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('LAB_COORDINATOR')")
-    public List<RescheduleRequest> getRequestsByStudent(@PathVariable String studentId) {
+    public List<?> getRequestsByStudent(@PathVariable String studentId,
+                                        @RequestParam(defaultValue = "full") String view) {
+        if (isSummaryView(view)) {
+            return requestRepository.findByStudentId(studentId, RescheduleRequestSummary.class);
+        }
         return requestRepository.findByStudentId(studentId);
     }
 
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('LAB_ADVISOR') or hasRole('MODULE_COORDINATOR') or hasRole('LAB_COORDINATOR') or hasRole('ADMIN')")
-    public List<RescheduleRequest> getRequestsByStatus(@PathVariable RequestStatus status) {
+    public List<?> getRequestsByStatus(@PathVariable RequestStatus status,
+                                       @RequestParam(defaultValue = "full") String view) {
+        if (isSummaryView(view)) {
+            return requestRepository.findByStatus(status, RescheduleRequestSummary.class);
+        }
         return requestRepository.findByStatus(status);
     }
 
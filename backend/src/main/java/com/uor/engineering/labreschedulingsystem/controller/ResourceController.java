@@ -1,32 +1,116 @@
 package com.uor.engineering.labreschedulingsystem.controller;
 
+import com.uor.engineering.labreschedulingsystem.dto.MessageResponse;
 import com.uor.engineering.labreschedulingsystem.dto.ResourceAvailabilityDto;
+import com.uor.engineering.labreschedulingsystem.security.UserPrincipal;
 import com.uor.engineering.labreschedulingsystem.service.ResourceService;
+import com.uor.engineering.labreschedulingsystem.service.RoomAssignmentService;
+import com.uor.engineering.labreschedulingsystem.service.ServiceBusyException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/resources")
 @PreAuthorize("hasRole('LAB_COORDINATOR') or hasRole('ADMIN')")
 public class ResourceController {
 
     private final ResourceService resourceService;
+    private final RoomAssignmentService roomAssignmentService;
+
+    @Value("${app.availability.matrix-max-days:62}")
+    private int maxMatrixDays;
+
+    @Value("${app.availability.matrix-max-slots:16}")
+    private int maxMatrixSlots;
+
+    @Value("${app.availability.suggestion-max-days:60}")
+    private int maxSuggestionDays;
+
+    @Value("${app.availability.suggestion-max-results:20}")
+    private int maxSuggestions;
 
     @Autowired
-    public ResourceController(ResourceService resourceService) {
+    public ResourceController(ResourceService resourceService, RoomAssignmentService roomAssignmentService) {
         this.resourceService = resourceService;
+        this.roomAssignmentService = roomAssignmentService;
     }
 
     @GetMapping("/availability")
     @PreAuthorize("hasAnyRole('STUDENT', 'LAB_ADVISOR', 'MODULE_COORDINATOR', 'LAB_COORDINATOR', 'ADMIN')")
-    public ResponseEntity<ResourceAvailabilityDto> checkAvailability(
+    public ResponseEntity<?> checkAvailability(
             @RequestParam String moduleCode,
             @RequestParam String date,
-            @RequestParam String timeSlot) {
-        ResourceAvailabilityDto availability = resourceService.checkResourceAvailability(moduleCode, date, timeSlot);
-        return ResponseEntity.ok(availability);
+            @RequestParam String timeSlot,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        try {
+            ResourceAvailabilityDto availability = resourceService.checkResourceAvailability(moduleCode, date, timeSlot,
+                    userPrincipal != null ? userPrincipal.getId() : null);
+            return ResponseEntity.ok(availability);
+        } catch (ServiceBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/availability/matrix")
+    @PreAuthorize("hasAnyRole('STUDENT', 'LAB_ADVISOR', 'MODULE_COORDINATOR', 'LAB_COORDINATOR', 'ADMIN')")
+    public ResponseEntity<?> getAvailabilityMatrix(
+            @RequestParam String moduleCode,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam List<String> timeSlots) {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days < 1 || days > maxMatrixDays) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Date range must cover 1 to " + maxMatrixDays + " days"));
+        }
+        if (timeSlots.isEmpty() || timeSlots.size() > maxMatrixSlots) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Between 1 and " + maxMatrixSlots + " time slots are allowed"));
+        }
+        return ResponseEntity.ok(resourceService.getAvailabilityMatrix(moduleCode, from, to, timeSlots));
+    }
+
+    @GetMapping("/availability/suggestions")
+    @PreAuthorize("hasAnyRole('STUDENT', 'LAB_ADVISOR', 'MODULE_COORDINATOR', 'LAB_COORDINATOR', 'ADMIN')")
+    public ResponseEntity<?> suggestAlternativeSlots(
+            @RequestParam String moduleCode,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam String timeSlot,
+            @RequestParam(defaultValue = "14") int days,
+            @RequestParam(defaultValue = "5") int limit) {
+        if (days < 1 || days > maxSuggestionDays) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Days must be between 1 and " + maxSuggestionDays));
+        }
+        if (limit < 1 || limit > maxSuggestions) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Limit must be between 1 and " + maxSuggestions));
+        }
+        return ResponseEntity.ok(resourceService.suggestAlternativeSlots(moduleCode, date, timeSlot, days, limit));
+    }
+
+    /**
+     * Assigns rooms to the approved requests of the week starting at weekStart. With dryRun the
+     * plan is returned without being saved.
+     */
+    @PostMapping("/room-assignments")
+    public ResponseEntity<?> assignRooms(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate weekStart,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        return ResponseEntity.ok(roomAssignmentService.assignWeek(weekStart, dryRun));
     }
 
     @GetMapping("/instructors/availability")
@@ -0,0 +1,52 @@
+package com.uor.engineering.labreschedulingsystem.controller;
+
+import com.uor.engineering.labreschedulingsystem.dto.EventTicketResponse;
+import com.uor.engineering.labreschedulingsystem.security.JwtUtils;
+import com.uor.engineering.labreschedulingsystem.security.TokenRevocationStore;
+import com.uor.engineering.labreschedulingsystem.security.UserPrincipal;
+import com.uor.engineering.labreschedulingsystem.service.StatusEventService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Browsers open the stream with EventSource, which cannot send an Authorization header: the
+ * client first POSTs to /ticket with its bearer token, then connects to
+ * /status?ticket=... . A ticket only opens the stream and expires after
+ * app.events.ticket-ttl-ms, so a reconnect after that needs a new one.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/events")
+public class StatusEventController {
+
+    @Autowired
+    private StatusEventService statusEventService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Value("${app.events.ticket-ttl-ms:60000}")
+    private long ticketTtlMs;
+
+    @PostMapping("/ticket")
+    public EventTicketResponse issueTicket(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return new EventTicketResponse(jwtUtils.generateEventStreamToken(userPrincipal,
+                tokenRevocationStore.earliestIssuedAt(userPrincipal.getUsername()), ticketTtlMs), ticketTtlMs);
+    }
+
+    @GetMapping(value = "/status", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatusChanges(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return statusEventService.subscribe(userPrincipal);
+    }
+}
@@ -3,13 +3,21 @@ package com.uor.engineering.labreschedulingsystem.controller;
 import com.uor.engineering.labreschedulingsystem.dto.MessageResponse;
 import com.uor.engineering.labreschedulingsystem.model.User;
 import com.uor.engineering.labreschedulingsystem.repository.UserRepository;
+import com.uor.engineering.labreschedulingsystem.security.TokenRevocationStore;
+import com.uor.engineering.labreschedulingsystem.service.ReferenceDataCache;
+import com.uor.engineering.labreschedulingsystem.service.UserImportService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +33,15 @@ public class UserController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public List<User> getAllUsers() {
@@ -63,6 +80,7 @@ public class UserController {
         }
 
         User updatedUser = userRepository.save(user);
+        referenceDataCache.invalidate(ReferenceDataCache.USERS);
         return ResponseEntity.ok(updatedUser);
     }
 
@@ -74,6 +92,38 @@ public class UserController {
         }
 
         userRepository.deleteById(id);
+        referenceDataCache.invalidate(ReferenceDataCache.USERS);
         return ResponseEntity.ok(new MessageResponse("User deleted successfully!"));
     }
+
+    @PostMapping("/{id}/revoke-sessions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> revokeSessions(@PathVariable String id) {
+        Optional<User> user = userRepository.findById(id);
+        if (!user.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        tokenRevocationStore.revokeAllForUser(user.get().getUsername());
+        return ResponseEntity.ok(new MessageResponse("All sessions revoked for user!"));
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> importUsers(HttpServletRequest request) throws IOException {
+        InputStream in = request.getInputStream();
+        boolean csv = request.getContentType() != null && request.getContentType().startsWith("text/csv");
+
+        StreamingResponseBody body = out -> {
+            if (csv) {
+                userImportService.importCsv(in, out);
+            } else {
+                userImportService.importJson(in, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+/**
+ * Summary of an appeal matched by full-text search, with its relevance score.
+ */
+public interface AppealSearchHit extends AppealSummary {
+    Float getScore();
+}
@@ -0,0 +1,19 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+import com.uor.engineering.labreschedulingsystem.model.AppealStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Closed projection of an appeal for list views. Only these fields are read from MongoDB.
+ */
+public interface AppealSummary {
+    String getId();
+    String getRequestId();
+    String getStudentId();
+    String getStudentName();
+    AppealStatus getStatus();
+    String getReviewedBy();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+}
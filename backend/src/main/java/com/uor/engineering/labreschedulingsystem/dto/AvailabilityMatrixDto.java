@@ -0,0 +1,27 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Availability for every (date, time slot) pair in a range. {@code rows} has one string per date
+ * with one hex digit per time slot. Each digit is a bit mask of {@link #INSTRUCTOR},
+ * {@link #LAB_ROOM}, {@link #TEACHING_ASSISTANT} and {@link #NO_CONFLICT}; "f" means fully available.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityMatrixDto {
+    public static final int INSTRUCTOR = 1;
+    public static final int LAB_ROOM = 2;
+    public static final int TEACHING_ASSISTANT = 4;
+    public static final int NO_CONFLICT = 8;
+
+    private String moduleCode;
+    private List<String> dates;
+    private List<String> timeSlots;
+    private List<String> rows;
+}
@@ -0,0 +1,21 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransitionDto {
+    @NotEmpty
+    private List<String> ids;
+    @Valid
+    @NotNull
+    private StatusTransitionDto transition;
+}
@@ -0,0 +1,28 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+import com.uor.engineering.labreschedulingsystem.model.RequestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransitionResultDto {
+    private int requested;
+    private int updated;
+    private List<Outcome> results;
+
+    public enum Result { UPDATED, CONFLICT, NOT_FOUND }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Outcome {
+        private String id;
+        private Result result;
+        private RequestStatus currentStatus;
+    }
+}
@@ -0,0 +1,18 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClashCheckDto {
+    private String studentId;
+    private String date;
+    private String timeSlot;
+    private boolean free;
+    private List<String> clashingModules;
+}
@@ -0,0 +1,13 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventTicketResponse {
+    private String ticket;
+    private long expiresInMs;
+}
@@ -0,0 +1,50 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    /**
+     * Builds a page for offset-paged results such as relevance-ranked search, where there is no
+     * stable sort key to resume from. {@code fetched} holds up to {@code pageSize + 1} items so
+     * that a further page can be detected; the cursor is the opaque offset of that page. Skipping
+     * costs the server work proportional to the offset and the relevance sort runs in memory, so
+     * no cursor is issued past {@code maxResults}.
+     */
+    public static <T> KeysetPage<T> ofOffset(List<T> fetched, int offset, int pageSize, int maxResults) {
+        boolean hasMore = fetched.size() > pageSize && offset + pageSize < maxResults;
+        List<T> items = fetched.size() > pageSize ? fetched.subList(0, pageSize) : fetched;
+        String nextCursor = hasMore
+                ? Base64.getUrlEncoder().withoutPadding().encodeToString(
+                        String.valueOf(offset + pageSize).getBytes(StandardCharsets.UTF_8))
+                : null;
+        return new KeysetPage<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Reverses {@link #ofOffset}; throws IllegalArgumentException for a malformed cursor or one
+     * past {@code maxResults}.
+     */
+    public static int decodeOffset(String cursor, int maxResults) {
+        if (cursor == null) {
+            return 0;
+        }
+        int offset = Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        if (offset < 0 || offset >= maxResults) {
+            throw new IllegalArgumentException("Offset out of range");
+        }
+        return offset;
+    }
+}
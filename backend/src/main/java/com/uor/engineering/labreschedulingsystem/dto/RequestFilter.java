@@ -0,0 +1,19 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+import com.uor.engineering.labreschedulingsystem.model.RequestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestFilter {
+    private String studentId;
+    private RequestStatus status;
+    private String moduleCode;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+}
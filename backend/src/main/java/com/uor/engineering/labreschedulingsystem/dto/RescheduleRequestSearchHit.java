@@ -0,0 +1,8 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+/**
+ * Summary of a reschedule request matched by full-text search, with its relevance score.
+ */
+public interface RescheduleRequestSearchHit extends RescheduleRequestSummary {
+    Float getScore();
+}
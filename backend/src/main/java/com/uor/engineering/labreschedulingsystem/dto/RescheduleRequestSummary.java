@@ -0,0 +1,21 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+import com.uor.engineering.labreschedulingsystem.model.RequestStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Closed projection of a reschedule request for list views. Only these fields are read from MongoDB.
+ */
+public interface RescheduleRequestSummary {
+    String getId();
+    String getStudentId();
+    String getStudentName();
+    String getModuleCode();
+    String getOriginalLabDate();
+    String getRequestedDate();
+    String getRequestedTimeSlot();
+    RequestStatus getStatus();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,49 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomAssignmentPlanDto {
+    private String weekStart;
+    private String weekEnd;
+    private int requests;
+    private int assigned;
+    private int unassigned;
+    private int updated;
+    private long planningMillis;
+    private List<Allocation> allocations;
+    private List<Shortfall> shortfalls;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Allocation {
+        private String date;
+        private String timeSlot;
+        private String moduleCode;
+        private String labRoomId;
+        private String labRoomNumber;
+        private int capacity;
+        private int students;
+    }
+
+    /**
+     * Students of a (date, slot, module) group left without a room.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Shortfall {
+        private String date;
+        private String timeSlot;
+        private String moduleCode;
+        private int students;
+        private String reason;
+    }
+}
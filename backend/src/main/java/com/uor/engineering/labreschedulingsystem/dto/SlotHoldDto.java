@@ -0,0 +1,18 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHoldDto {
+    @NotBlank
+    private String moduleCode;
+    @NotBlank
+    private String date;
+    @NotBlank
+    private String timeSlot;
+}
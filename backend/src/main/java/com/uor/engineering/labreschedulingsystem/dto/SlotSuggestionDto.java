@@ -0,0 +1,24 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A free (date, slot) with one lab room, instructor and TA that can cover it. {@code distance}
+ * counts slots from the preferred date and slot; whole days weigh one full set of slots.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotSuggestionDto {
+    private String date;
+    private String timeSlot;
+    private String labRoomId;
+    private String labRoomNumber;
+    private String instructorId;
+    private String instructorName;
+    private String teachingAssistantId;
+    private String teachingAssistantName;
+    private int distance;
+}
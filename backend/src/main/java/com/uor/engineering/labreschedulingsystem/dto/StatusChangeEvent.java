@@ -0,0 +1,22 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusChangeEvent {
+    public static final String REQUEST = "request";
+    public static final String APPEAL = "appeal";
+
+    private String type;
+    private String id;
+    private String studentId;
+    private String moduleCode;
+    private String status;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,29 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusStatsDto {
+    private long total;
+    private Map<String, Long> byStatus;
+    private List<StatusBucket> buckets;
+    private LocalDateTime generatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StatusBucket {
+        private String status;
+        private String moduleCode;
+        private String week;
+        private long count;
+    }
+}
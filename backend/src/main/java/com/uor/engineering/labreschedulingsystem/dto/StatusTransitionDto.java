@@ -0,0 +1,21 @@
+package com.uor.engineering.labreschedulingsystem.dto;
+
+import com.uor.engineering.labreschedulingsystem.model.RequestStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusTransitionDto {
+    @NotNull
+    private RequestStatus expectedStatus;
+    @NotNull
+    private RequestStatus targetStatus;
+    private String comment;
+    private String approvedDate;
+    private String rejectionReason;
+    private Long expectedVersion;
+}
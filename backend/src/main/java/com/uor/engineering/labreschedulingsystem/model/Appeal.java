@@ -1,7 +1,11 @@
 package com.uor.engineering.labreschedulingsystem.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 import java.util.List;
 import java.time.LocalDateTime;
 
@@ -9,16 +13,24 @@ import java.time.LocalDateTime;
 public class Appeal {
     @Id
     private String id;
+    @Indexed
     private String requestId;
+    @Indexed
     private String studentId;
+    @TextIndexed
     private String appealReason;
+    @Indexed
     private AppealStatus status;
     private String panelDecision;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private String reviewedBy;
     private List<String> attachments;
+    @TextIndexed(weight = 3)
     private String studentName;
+    @TextScore
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Float score;
 
     public Appeal() {
         this.createdAt = LocalDateTime.now();
@@ -56,4 +68,6 @@ public class Appeal {
     public void setAttachments(List<String> attachments) { this.attachments = attachments; }
     public String getStudentName() { return studentName; }
     public void setStudentName(String studentName) { this.studentName = studentName; }
+    public Float getScore() { return score; }
+    public void setScore(Float score) { this.score = score; }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.uor.engineering.labreschedulingsystem.model;
+
+import java.time.DayOfWeek;
+import java.util.List;
+
+/**
+ * A recurring lab session of a module: the same weekday and time slot in each listed teaching
+ * week of the term (every week when {@code weeks} is empty).
+ */
+public class LabSessionRule {
+    private DayOfWeek dayOfWeek;
+    private String timeSlot;
+    private List<Integer> weeks;
+    private String labRoomId;
+
+    public LabSessionRule() {
+    }
+
+    public LabSessionRule(DayOfWeek dayOfWeek, String timeSlot, List<Integer> weeks, String labRoomId) {
+        this.dayOfWeek = dayOfWeek;
+        this.timeSlot = timeSlot;
+        this.weeks = weeks;
+        this.labRoomId = labRoomId;
+    }
+
+
+    public DayOfWeek getDayOfWeek() { return dayOfWeek; }
+    public void setDayOfWeek(DayOfWeek dayOfWeek) { this.dayOfWeek = dayOfWeek; }
+
+    public String getTimeSlot() { return timeSlot; }
+    public void setTimeSlot(String timeSlot) { this.timeSlot = timeSlot; }
+
+    public List<Integer> getWeeks() { return weeks; }
+    public void setWeeks(List<Integer> weeks) { this.weeks = weeks; }
+
+    public String getLabRoomId() { return labRoomId; }
+    public void setLabRoomId(String labRoomId) { this.labRoomId = labRoomId; }
+}
@@ -1,21 +1,28 @@
 package com.uor.engineering.labreschedulingsystem.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Document(collection = "modules")
+@CompoundIndex(name = "department_semester", def = "{'department': 1, 'semester': 1}")
 public class Module {
     @Id
     private String id;
+    @Indexed
     private String moduleCode;
     private String moduleName;
     private String department;
     private int semester;
     private String coordinator;
     private List<String> labSessions;
+    private List<LabSessionRule> sessionRules;
+    private List<String> requiredEquipment;
+    private Integer seatsPerSession;
     private boolean active;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -48,6 +55,15 @@ public class Module {
     public List<String> getLabSessions() { return labSessions; }
     public void setLabSessions(List<String> labSessions) { this.labSessions = labSessions; }
 
+    public List<LabSessionRule> getSessionRules() { return sessionRules; }
+    public void setSessionRules(List<LabSessionRule> sessionRules) { this.sessionRules = sessionRules; }
+
+    public List<String> getRequiredEquipment() { return requiredEquipment; }
+    public void setRequiredEquipment(List<String> requiredEquipment) { this.requiredEquipment = requiredEquipment; }
+
+    public Integer getSeatsPerSession() { return seatsPerSession; }
+    public void setSeatsPerSession(Integer seatsPerSession) { this.seatsPerSession = seatsPerSession; }
+
     public boolean isActive() { return active; }
     public void setActive(boolean active) { this.active = active; }
 
@@ -0,0 +1,8 @@
+package com.uor.engineering.labreschedulingsystem.model;
+
+public enum NotificationStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.uor.engineering.labreschedulingsystem.model;
+
+public enum NotificationType {
+    REQUEST_APPROVED,
+    REQUEST_REJECTED,
+    APPEAL_APPROVED,
+    APPEAL_REJECTED
+}
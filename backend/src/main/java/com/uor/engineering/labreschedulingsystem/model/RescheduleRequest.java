@@ -1,20 +1,38 @@
 package com.uor.engineering.labreschedulingsystem.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Document(collection = "reschedule_requests")
+@CompoundIndexes({
+        @CompoundIndex(name = "created_id", def = "{'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "student_created_id", def = "{'studentId': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "status_created_id", def = "{'status': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "module_created_id", def = "{'moduleCode': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "module_date_slot", def = "{'moduleCode': 1, 'requestedDate': 1, 'requestedTimeSlot': 1}"),
+        @CompoundIndex(name = "status_date_slot", def = "{'status': 1, 'requestedDate': 1, 'requestedTimeSlot': 1}")
+})
 public class RescheduleRequest {
     @Id
     private String id;
     private String studentId;
+    @TextIndexed(weight = 3)
     private String studentName;
+    @TextIndexed(weight = 5)
     private String moduleCode;
     private String originalLabDate;
     private String requestedDate;
+    @TextIndexed
     private String reason;
     private List<String> attachments;
     private RequestStatus status;
@@ -26,6 +44,16 @@ public class RescheduleRequest {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private String requestedTimeSlot;
+    private String assignedLabRoomId;
+    private String assignedLabRoomNumber;
+    @Version
+    private Long version;
+    // Set by each bulk transition so its own updates can be told apart from concurrent ones.
+    @JsonIgnore
+    private String lastTransitionId;
+    @TextScore
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Float score;
 
     public RescheduleRequest() {
         this.createdAt = LocalDateTime.now();
@@ -89,4 +117,15 @@ public class RescheduleRequest {
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     public String getRequestedTimeSlot() { return requestedTimeSlot; }
     public void setRequestedTimeSlot(String requestedTimeSlot) { this.requestedTimeSlot = requestedTimeSlot; }
+    public String getAssignedLabRoomId() { return assignedLabRoomId; }
+    public void setAssignedLabRoomId(String assignedLabRoomId) { this.assignedLabRoomId = assignedLabRoomId; }
+    public String getAssignedLabRoomNumber() { return assignedLabRoomNumber; }
+    public void setAssignedLabRoomNumber(String assignedLabRoomNumber) { this.assignedLabRoomNumber = assignedLabRoomNumber; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    public String getLastTransitionId() { return lastTransitionId; }
+    public void setLastTransitionId(String lastTransitionId) { this.lastTransitionId = lastTransitionId; }
+
+    public Float getScore() { return score; }
+    public void setScore(Float score) { this.score = score; }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.uor.engineering.labreschedulingsystem.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    @Id
+    private String id;
+    private String username;
+    private Instant revokedBefore;
+    @Indexed
+    private Instant revokedAt;
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiresAt;
+
+    public RevokedToken() {
+        this.revokedAt = Instant.now();
+    }
+
+    public RevokedToken(String id, String username, Instant revokedBefore, Instant expiresAt) {
+        this();
+        this.id = id;
+        this.username = username;
+        this.revokedBefore = revokedBefore;
+        this.expiresAt = expiresAt;
+    }
+
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public Instant getRevokedBefore() { return revokedBefore; }
+    public void setRevokedBefore(Instant revokedBefore) { this.revokedBefore = revokedBefore; }
+
+    public Instant getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(Instant revokedAt) { this.revokedAt = revokedAt; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,72 @@
+package com.uor.engineering.labreschedulingsystem.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Seats taken and held in one (module, date, slot) session. The id is the session key, so every
+ * claim, hold and release for a session is a single-document update that MongoDB applies one at
+ * a time. Expired holds stay in the list until the next write to the session drops them.
+ */
+@Document(collection = "seat_reservations")
+public class SeatReservation {
+    @Id
+    private String id;
+    private String moduleCode;
+    private String date;
+    private String timeSlot;
+    private int capacity;
+    private int reserved;
+    private List<String> requestIds;
+    private List<Hold> holds;
+    private LocalDateTime updatedAt;
+
+    public SeatReservation() {
+    }
+
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getModuleCode() { return moduleCode; }
+    public void setModuleCode(String moduleCode) { this.moduleCode = moduleCode; }
+
+    public String getDate() { return date; }
+    public void setDate(String date) { this.date = date; }
+
+    public String getTimeSlot() { return timeSlot; }
+    public void setTimeSlot(String timeSlot) { this.timeSlot = timeSlot; }
+
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+
+    public int getReserved() { return reserved; }
+    public void setReserved(int reserved) { this.reserved = reserved; }
+
+    public List<String> getRequestIds() { return requestIds; }
+    public void setRequestIds(List<String> requestIds) { this.requestIds = requestIds; }
+
+    public List<Hold> getHolds() { return holds; }
+    public void setHolds(List<Hold> holds) { this.holds = holds; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public static class Hold {
+        private String studentId;
+        private Instant expiresAt;
+
+        public Hold() {
+        }
+
+        public String getStudentId() { return studentId; }
+        public void setStudentId(String studentId) { this.studentId = studentId; }
+
+        public Instant getExpiresAt() { return expiresAt; }
+        public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+    }
+}
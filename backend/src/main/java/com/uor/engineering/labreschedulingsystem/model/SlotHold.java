@@ -0,0 +1,56 @@
+package com.uor.engineering.labreschedulingsystem.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A student's handle on a seat held for them in a (module, date, slot) session while they fill in
+ * the request form; the seat itself is counted on the session's SeatReservation. MongoDB's TTL
+ * monitor deletes holds after expiresAt; that runs about once a minute, so every read also
+ * filters on expiresAt.
+ */
+@Document(collection = "slot_holds")
+@CompoundIndexes({
+        @CompoundIndex(name = "student_session", def = "{'studentId': 1, 'moduleCode': 1, 'date': 1, 'timeSlot': 1}", unique = true)
+})
+public class SlotHold {
+    @Id
+    private String id;
+    private String studentId;
+    private String moduleCode;
+    private String date;
+    private String timeSlot;
+    private Instant createdAt;
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiresAt;
+
+    public SlotHold() {
+    }
+
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getStudentId() { return studentId; }
+    public void setStudentId(String studentId) { this.studentId = studentId; }
+
+    public String getModuleCode() { return moduleCode; }
+    public void setModuleCode(String moduleCode) { this.moduleCode = moduleCode; }
+
+    public String getDate() { return date; }
+    public void setDate(String date) { this.date = date; }
+
+    public String getTimeSlot() { return timeSlot; }
+    public void setTimeSlot(String timeSlot) { this.timeSlot = timeSlot; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+}
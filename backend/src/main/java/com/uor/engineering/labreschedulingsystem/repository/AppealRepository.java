@@ -8,9 +8,12 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface AppealRepository extends MongoRepository<Appeal, String> {
+public interface AppealRepository extends MongoRepository<Appeal, String>, AppealRepositoryCustom {
     List<Appeal> findByStudentId(String studentId);
+    <T> List<T> findByStudentId(String studentId, Class<T> type);
     List<Appeal> findByStatus(AppealStatus status);
+    <T> List<T> findByStatus(AppealStatus status, Class<T> type);
+    <T> List<T> findAllBy(Class<T> type);
     List<Appeal> findByRequestId(String requestId);
     List<Appeal> findByStatusIn(List<AppealStatus> statuses);
 
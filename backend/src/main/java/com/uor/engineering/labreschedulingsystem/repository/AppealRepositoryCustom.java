@@ -0,0 +1,13 @@
+package com.uor.engineering.labreschedulingsystem.repository;
+
+import com.uor.engineering.labreschedulingsystem.dto.AppealSearchHit;
+
+import java.util.List;
+
+public interface AppealRepositoryCustom {
+    /**
+     * Full-text search over student name and appeal reason, ranked by text score. Only the
+     * summary fields are read. {@code studentId} restricts the search to one student when not null.
+     */
+    List<AppealSearchHit> search(String text, String studentId, int skip, int limit);
+}
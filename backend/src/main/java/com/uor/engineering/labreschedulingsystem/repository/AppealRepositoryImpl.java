@@ -0,0 +1,34 @@
+package com.uor.engineering.labreschedulingsystem.repository;
+
+import com.uor.engineering.labreschedulingsystem.dto.AppealSearchHit;
+import com.uor.engineering.labreschedulingsystem.model.Appeal;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import java.util.List;
+
+class AppealRepositoryImpl implements AppealRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    AppealRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<AppealSearchHit> search(String text, String studentId, int skip, int limit) {
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text)).sortByScore();
+        if (studentId != null) {
+            query.addCriteria(Criteria.where("studentId").is(studentId));
+        }
+        query.with(Sort.by(Sort.Order.desc("createdAt")));
+        query.fields().include("requestId", "studentId", "studentName", "status", "reviewedBy", "createdAt", "updatedAt");
+        query.skip(skip).limit(limit);
+
+        return mongoTemplate.query(Appeal.class).as(AppealSearchHit.class).matching(query).all();
+    }
+}
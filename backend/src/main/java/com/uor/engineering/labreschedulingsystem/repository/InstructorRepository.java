@@ -11,4 +11,6 @@ import java.util.List;
 public interface InstructorRepository extends MongoRepository<Instructor, String> {
     List<Instructor> findByUnavailableDatesNotContaining(LocalDate date);
     List<Instructor> findByUnavailableTimeSlotsNotContaining(String timeSlot);
+    List<Instructor> findByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining(LocalDate date, String timeSlot);
+    boolean existsByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining(LocalDate date, String timeSlot);
 }
\ No newline at end of file
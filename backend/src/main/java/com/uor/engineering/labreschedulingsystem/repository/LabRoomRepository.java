@@ -11,4 +11,6 @@ import java.util.List;
 public interface LabRoomRepository extends MongoRepository<LabRoom, String> {
     List<LabRoom> findByUnavailableDatesNotContaining(LocalDate date);
     List<LabRoom> findByUnavailableTimeSlotsNotContaining(String timeSlot);
+    List<LabRoom> findByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining(LocalDate date, String timeSlot);
+    boolean existsByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining(LocalDate date, String timeSlot);
 }
\ No newline at end of file
@@ -8,11 +8,19 @@ import org.springframework.data.mongodb.repository.Query;
 import java.util.List;
 
 @Repository
-public interface RescheduleRequestRepository extends MongoRepository<RescheduleRequest, String> {
+public interface RescheduleRequestRepository extends MongoRepository<RescheduleRequest, String>, RescheduleRequestRepositoryCustom {
     List<RescheduleRequest> findByStudentId(String studentId);
+    <T> List<T> findByStudentId(String studentId, Class<T> type);
     List<RescheduleRequest> findByStatus(RequestStatus status);
+    <T> List<T> findByStatus(RequestStatus status, Class<T> type);
     List<RescheduleRequest> findByModuleCode(String moduleCode);
     @Query("{ 'moduleCode': ?0, 'requestedDate': ?1, 'status': { $nin: ['REJECTED', 'APPEAL_REJECTED'] } }")
     List<RescheduleRequest> findConflictingRequests(String moduleCode, String date);
     List<RescheduleRequest> findByModuleCodeAndRequestedDateAndRequestedTimeSlot(String moduleCode, String date, String timeSlot);
+    @Query(value = "{ 'moduleCode': ?0, 'requestedDate': { $gte: ?1, $lte: ?2 } }",
+            fields = "{ 'requestedDate': 1, 'requestedTimeSlot': 1 }")
+    List<RescheduleRequest> findRequestedSlotsInRange(String moduleCode, String fromDate, String toDate);
+    @Query(value = "{ 'status': ?0, 'requestedDate': { $gte: ?1, $lte: ?2 } }",
+            fields = "{ 'moduleCode': 1, 'requestedDate': 1, 'requestedTimeSlot': 1, 'createdAt': 1, 'assignedLabRoomId': 1 }")
+    List<RescheduleRequest> findSlotsByStatusInRange(RequestStatus status, String fromDate, String toDate);
 }
\ No newline at end of file
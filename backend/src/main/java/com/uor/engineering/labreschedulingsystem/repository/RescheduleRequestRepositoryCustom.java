@@ -0,0 +1,29 @@
+package com.uor.engineering.labreschedulingsystem.repository;
+
+import com.uor.engineering.labreschedulingsystem.dto.RequestFilter;
+import com.uor.engineering.labreschedulingsystem.dto.RescheduleRequestSearchHit;
+import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface RescheduleRequestRepositoryCustom {
+    /**
+     * Returns up to {@code limit} requests matching the filter, newest first, strictly after the
+     * (createdAt, id) position of the previous page. Pass nulls for the first page. {@code type} is
+     * either the document class or a projection interface.
+     */
+    <T> List<T> findPage(RequestFilter filter, LocalDateTime afterCreatedAt, String afterId, int limit, Class<T> type);
+
+    /**
+     * Streams every request matching the filter from a server-side cursor. The caller must close the stream.
+     */
+    Stream<RescheduleRequest> streamAll(RequestFilter filter);
+
+    /**
+     * Full-text search over student name, module code and reason, ranked by text score. Only the
+     * summary fields are read. {@code studentId} restricts the search to one student when not null.
+     */
+    List<RescheduleRequestSearchHit> search(String text, String studentId, int skip, int limit);
+}
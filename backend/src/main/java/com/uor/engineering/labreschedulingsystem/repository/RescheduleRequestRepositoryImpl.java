@@ -0,0 +1,98 @@
+package com.uor.engineering.labreschedulingsystem.repository;
+
+import com.uor.engineering.labreschedulingsystem.dto.RequestFilter;
+import com.uor.engineering.labreschedulingsystem.dto.RescheduleRequestSearchHit;
+import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+class RescheduleRequestRepositoryImpl implements RescheduleRequestRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    RescheduleRequestRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    private static final int EXPORT_CURSOR_BATCH_SIZE = 500;
+
+    @Override
+    public <T> List<T> findPage(RequestFilter filter, LocalDateTime afterCreatedAt, String afterId, int limit, Class<T> type) {
+        List<Criteria> criteria = filterCriteria(filter);
+
+        if (afterCreatedAt != null && afterId != null) {
+            criteria.add(new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(afterCreatedAt),
+                    new Criteria().andOperator(
+                            Criteria.where("createdAt").is(afterCreatedAt),
+                            Criteria.where("id").lt(afterId))));
+        }
+
+        Query query = toQuery(criteria);
+        query.with(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")));
+        query.limit(limit);
+
+        return mongoTemplate.query(RescheduleRequest.class).as(type).matching(query).all();
+    }
+
+    @Override
+    public Stream<RescheduleRequest> streamAll(RequestFilter filter) {
+        Query query = toQuery(filterCriteria(filter));
+        query.with(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")));
+        query.cursorBatchSize(EXPORT_CURSOR_BATCH_SIZE);
+
+        return mongoTemplate.stream(query, RescheduleRequest.class);
+    }
+
+    @Override
+    public List<RescheduleRequestSearchHit> search(String text, String studentId, int skip, int limit) {
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text)).sortByScore();
+        if (studentId != null) {
+            query.addCriteria(Criteria.where("studentId").is(studentId));
+        }
+        query.with(Sort.by(Sort.Order.desc("createdAt")));
+        query.fields().include("studentId", "studentName", "moduleCode", "originalLabDate", "requestedDate",
+                "requestedTimeSlot", "status", "createdAt", "updatedAt");
+        query.skip(skip).limit(limit);
+
+        return mongoTemplate.query(RescheduleRequest.class).as(RescheduleRequestSearchHit.class).matching(query).all();
+    }
+
+    private static List<Criteria> filterCriteria(RequestFilter filter) {
+        List<Criteria> criteria = new ArrayList<>();
+
+        if (filter.getStudentId() != null) {
+            criteria.add(Criteria.where("studentId").is(filter.getStudentId()));
+        }
+        if (filter.getStatus() != null) {
+            criteria.add(Criteria.where("status").is(filter.getStatus()));
+        }
+        if (filter.getModuleCode() != null) {
+            criteria.add(Criteria.where("moduleCode").is(filter.getModuleCode()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            criteria.add(Criteria.where("createdAt").gte(filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            criteria.add(Criteria.where("createdAt").lt(filter.getCreatedTo()));
+        }
+        return criteria;
+    }
+
+    private static Query toQuery(List<Criteria> criteria) {
+        Query query = new Query();
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria));
+        }
+        return query;
+    }
+}
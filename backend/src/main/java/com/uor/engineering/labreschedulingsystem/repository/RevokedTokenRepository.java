@@ -0,0 +1,13 @@
+package com.uor.engineering.labreschedulingsystem.repository;
+
+import com.uor.engineering.labreschedulingsystem.model.RevokedToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+    List<RevokedToken> findByRevokedAtAfter(Instant revokedAt);
+}
@@ -11,4 +11,6 @@ import java.util.List;
 public interface TeachingAssistantRepository extends MongoRepository<TeachingAssistant, String> {
     List<TeachingAssistant> findByUnavailableDatesNotContaining(LocalDate date);
     List<TeachingAssistant> findByUnavailableTimeSlotsNotContaining(String timeSlot);
+    List<TeachingAssistant> findByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining(LocalDate date, String timeSlot);
+    boolean existsByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining(LocalDate date, String timeSlot);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.uor.engineering.labreschedulingsystem.security;
 
 import com.uor.engineering.labreschedulingsystem.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +9,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,6 +19,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Objects;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -26,8 +29,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Value("${app.jwt.strict-validation:false}")
+    private boolean strictValidation;
+
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    private static final String EVENT_STREAM_PATH = "/api/events/status";
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String path = request.getServletPath();
@@ -39,15 +50,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            String requiredScope = null;
+            if (jwt == null && EVENT_STREAM_PATH.equals(request.getServletPath())) {
+                jwt = request.getParameter("ticket");
+                requiredScope = JwtUtils.SCOPE_EVENTS;
+            }
+            Claims claims = jwt != null ? jwtUtils.parseJwtToken(jwt) : null;
+            // Event stream tickets travel in URLs, so they only open the stream and nothing else.
+            if (claims != null && !Objects.equals(requiredScope, jwtUtils.getScope(claims))) {
+                claims = null;
+            }
+            if (claims != null && !tokenRevocationStore.isRevoked(jwt, claims)) {
+                UserDetails userDetails = jwtUtils.getUserPrincipal(claims);
+
+                // Older tokens carry only the username; strict mode re-checks the account in the database.
+                if (userDetails == null || strictValidation) {
+                    userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                }
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                if (userDetails.isEnabled()) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                } else {
+                    logger.warn("Rejected token for disabled user: {}", userDetails.getUsername());
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e.getMessage());
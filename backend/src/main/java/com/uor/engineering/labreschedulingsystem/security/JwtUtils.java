@@ -2,66 +2,185 @@ package com.uor.engineering.labreschedulingsystem.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_EMAIL = "email";
+    static final String CLAIM_ROLES = "roles";
+    static final String CLAIM_SCOPE = "scope";
+    static final String SCOPE_EVENTS = "events";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration}")
     private int jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${app.jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private VerifiedTokenCache verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = new VerifiedTokenCache(cacheMaxSize);
     }
 
     public String generateJwtToken(Authentication authentication) {
+        return generateJwtToken(authentication, Instant.now());
+    }
+
+    /**
+     * As {@link #generateJwtToken(Authentication)}, with the iat set to {@code issuedAt}. Callers
+     * pass {@link TokenRevocationStore#earliestIssuedAt} so that a token minted just after a
+     * "revoke all sessions" is not caught by that revocation.
+     */
+    public String generateJwtToken(Authentication authentication, Instant issuedAt) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
 
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+
         return Jwts.builder()
                 .subject((userPrincipal.getUsername()))
-                .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                .claim(CLAIM_ROLES, roles)
+                .issuedAt(Date.from(issuedAt))
+                .expiration(Date.from(issuedAt.plusMillis(jwtExpirationMs)))
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+    /**
+     * Short-lived token that only opens the status event stream. It is passed as a query parameter
+     * because the browser's EventSource cannot set an Authorization header, and is not accepted
+     * anywhere else.
+     */
+    public String generateEventStreamToken(UserPrincipal userPrincipal, Instant issuedAt, long ttlMs) {
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+
+        Date now = Date.from(issuedAt);
+        return Jwts.builder()
+                .subject(userPrincipal.getUsername())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_SCOPE, SCOPE_EVENTS)
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + ttlMs))
+                .signWith(signingKey)
+                .compact();
     }
 
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Scope of a restricted token such as {@link #SCOPE_EVENTS}, or null for a regular session token.
+     */
+    public String getScope(Claims claims) {
+        return claims.get(CLAIM_SCOPE, String.class);
+    }
+
+    /**
+     * Verifies the token once and returns its claims, or null if the token is not valid.
+     * Tokens seen before are served from the verified-token cache until they expire.
+     */
+    public Claims parseJwtToken(String authToken) {
+        Claims claims = verifiedTokens.get(authToken);
+        if (claims != null) {
+            return claims;
+        }
+
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(authToken);
-            return true;
+            claims = parser.parseSignedClaims(authToken).getPayload();
+            verifiedTokens.put(authToken, claims);
+            return claims;
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
             logger.error("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
             logger.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (SignatureException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        Claims claims = parseJwtToken(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return parseJwtToken(authToken) != null;
+    }
+
+    /**
+     * Builds a principal from the signed claims of the token, without touching the database.
+     * Returns null for tokens issued before the claims were added, so callers can fall back
+     * to loading the user.
+     */
+    public UserPrincipal getUserPrincipal(Claims claims) {
+        String id = claims.get(CLAIM_USER_ID, String.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        if (id == null || roles == null) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .collect(Collectors.toList());
+
+        return new UserPrincipal(id, claims.getSubject(), claims.get(CLAIM_EMAIL, String.class), null, authorities);
+    }
+
+    public Map<String, Object> getVerifiedTokenCacheStats() {
+        return verifiedTokens.stats();
+    }
+
+    public long getJwtExpirationMs() {
+        return jwtExpirationMs;
+    }
+
+    static String tokenDigest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
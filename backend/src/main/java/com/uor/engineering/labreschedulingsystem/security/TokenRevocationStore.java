@@ -0,0 +1,164 @@
+package com.uor.engineering.labreschedulingsystem.security;
+
+import com.uor.engineering.labreschedulingsystem.model.RevokedToken;
+import com.uor.engineering.labreschedulingsystem.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Revoked tokens live in the revoked_tokens collection until their natural expiry (TTL index).
+ * An in-memory Bloom filter over the revoked keys answers the common "not revoked" case
+ * without a database round trip; only filter hits are confirmed against MongoDB.
+ */
+@Component
+public class TokenRevocationStore {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    private static final String USER_KEY_PREFIX = "user:";
+    private static final long SYNC_OVERLAP_MS = 5_000;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtUtils jwtUtils;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync;
+    private final AtomicInteger filterEntries = new AtomicInteger();
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder filterHits = new LongAdder();
+    private final LongAdder revokedHits = new LongAdder();
+
+    public TokenRevocationStore(RevokedTokenRepository revokedTokenRepository,
+                                JwtUtils jwtUtils,
+                                @Value("${app.jwt.revocation.expected-entries:100000}") int expectedEntries,
+                                @Value("${app.jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtUtils = jwtUtils;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        Instant startedAt = Instant.now();
+        BloomFilter rebuilt = new BloomFilter(expectedEntries, falsePositiveRate);
+        List<RevokedToken> revoked = revokedTokenRepository.findAll();
+        revoked.forEach(token -> rebuilt.put(token.getId()));
+
+        filter = rebuilt;
+        filterEntries.set(revoked.size());
+        lastSync = startedAt;
+        logger.info("Token revocation filter rebuilt with {} entries", revoked.size());
+    }
+
+    /**
+     * Picks up revocations written by other instances. Full rebuilds also drop entries
+     * that MongoDB has already expired, once the filter has grown past its sizing.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sync-interval-ms:30000}")
+    public void syncRecentRevocations() {
+        if (filterEntries.get() > expectedEntries) {
+            rebuild();
+            return;
+        }
+        Instant startedAt = Instant.now();
+        List<RevokedToken> recent = revokedTokenRepository.findByRevokedAtAfter(lastSync.minusMillis(SYNC_OVERLAP_MS));
+        recent.forEach(token -> addToFilter(token.getId()));
+        lastSync = startedAt;
+    }
+
+    public boolean isRevoked(String token, Claims claims) {
+        checks.increment();
+        BloomFilter current = filter;
+
+        String tokenKey = JwtUtils.tokenDigest(token);
+        if (current.mightContain(tokenKey)) {
+            filterHits.increment();
+            if (revokedTokenRepository.existsById(tokenKey)) {
+                revokedHits.increment();
+                return true;
+            }
+        }
+
+        String userKey = USER_KEY_PREFIX + claims.getSubject();
+        if (current.mightContain(userKey)) {
+            filterHits.increment();
+            RevokedToken userRevocation = revokedTokenRepository.findById(userKey).orElse(null);
+            if (userRevocation != null && claims.getIssuedAt() != null
+                    && claims.getIssuedAt().toInstant().isBefore(userRevocation.getRevokedBefore())) {
+                revokedHits.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void revokeToken(String token, Claims claims) {
+        String tokenKey = JwtUtils.tokenDigest(token);
+        Instant expiresAt = claims.getExpiration() != null
+                ? claims.getExpiration().toInstant()
+                : Instant.now().plusMillis(jwtUtils.getJwtExpirationMs());
+        revokedTokenRepository.save(new RevokedToken(tokenKey, claims.getSubject(), null, expiresAt));
+        addToFilter(tokenKey);
+    }
+
+    /**
+     * Revokes every token issued to the user up to and including the current second. JWT iat has
+     * whole-second precision, so a token from earlier in this second cannot be told apart from one
+     * issued after the call; the cut-off is the start of the next second, and new tokens take
+     * their iat from {@link #earliestIssuedAt} so they are not caught by it. The record only has
+     * to outlive the longest-lived token, so it expires one token lifetime from now.
+     */
+    public void revokeAllForUser(String username) {
+        String userKey = USER_KEY_PREFIX + username;
+        Instant now = Instant.now();
+        revokedTokenRepository.save(new RevokedToken(userKey, username,
+                now.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1), now.plusMillis(jwtUtils.getJwtExpirationMs())));
+        addToFilter(userKey);
+    }
+
+    /**
+     * The iat for a token issued to the user now: the current time, or the user's revocation
+     * cut-off while that is still (at most a second) ahead of it.
+     */
+    public Instant earliestIssuedAt(String username) {
+        Instant now = Instant.now();
+        String userKey = USER_KEY_PREFIX + username;
+        if (!filter.mightContain(userKey)) {
+            return now;
+        }
+        return revokedTokenRepository.findById(userKey)
+                .map(RevokedToken::getRevokedBefore)
+                .filter(now::isBefore)
+                .orElse(now);
+    }
+
+    private void addToFilter(String key) {
+        filter.put(key);
+        filterEntries.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("filterEntries", filterEntries.get());
+        stats.put("checks", checks.sum());
+        stats.put("filterHits", filterHits.sum());
+        stats.put("revoked", revokedHits.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,76 @@
+package com.uor.engineering.labreschedulingsystem.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded LRU cache of tokens whose signature has already been verified.
+ * Entries are keyed by a SHA-256 digest of the token and are dropped once the token expires.
+ */
+class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final Map<String, Claims> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > VerifiedTokenCache.this.maxSize;
+            }
+        };
+    }
+
+    Claims get(String token) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        String key = JwtUtils.tokenDigest(token);
+        Claims claims;
+        synchronized (entries) {
+            claims = entries.get(key);
+            if (claims != null && isExpired(claims)) {
+                entries.remove(key);
+                claims = null;
+            }
+        }
+        if (claims != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return claims;
+    }
+
+    void put(String token, Claims claims) {
+        if (maxSize <= 0 || isExpired(claims)) {
+            return;
+        }
+        String key = JwtUtils.tokenDigest(token);
+        synchronized (entries) {
+            entries.put(key, claims);
+        }
+    }
+
+    Map<String, Object> stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return Map.of(
+                "size", size,
+                "maxSize", maxSize,
+                "hits", hits.sum(),
+                "misses", misses.sum());
+    }
+
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().getTime() <= System.currentTimeMillis();
+    }
+}
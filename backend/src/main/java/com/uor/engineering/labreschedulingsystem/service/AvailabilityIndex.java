@@ -0,0 +1,308 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.uor.engineering.labreschedulingsystem.model.Instructor;
+import com.uor.engineering.labreschedulingsystem.model.LabRoom;
+import com.uor.engineering.labreschedulingsystem.model.TeachingAssistant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * In-memory availability of instructors, lab rooms and TAs. Each resource is interned to a
+ * small int and represented by one bit. A resource is blocked at (date, slot) when the date is in
+ * its unavailableDates or the slot is in its unavailableTimeSlots, so the blocked cells factor into
+ * one bitset per blocked epoch-day and one per time slot. "Is any resource free" is then a
+ * word-wise {@code live & ~day & ~slot} over a few longs.
+ *
+ * <p>Reads use an immutable snapshot; writes rebuild the snapshot for one resource kind. The
+ * resource services update the index after every save or delete, and a periodic reload picks
+ * up changes made by other instances.
+ */
+@Component
+public class AvailabilityIndex {
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityIndex.class);
+
+    public enum ResourceKind { INSTRUCTOR, LAB_ROOM, TEACHING_ASSISTANT }
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+
+    private final Map<ResourceKind, KindIndex> indexes = new EnumMap<>(ResourceKind.class);
+    private final Map<String, Integer> slotIds = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private volatile Instant lastReload;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    public AvailabilityIndex(MongoTemplate mongoTemplate,
+                             @Value("${app.availability.index-enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        for (ResourceKind kind : ResourceKind.values()) {
+            indexes.put(kind, new KindIndex());
+        }
+    }
+
+    /**
+     * False until the first load has finished; callers fall back to querying MongoDB.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.availability.refresh-interval-ms:60000}",
+            initialDelayString = "${app.availability.refresh-interval-ms:60000}")
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        reload(ResourceKind.INSTRUCTOR, Instructor.class,
+                Instructor::getId, Instructor::getUnavailableDates, Instructor::getUnavailableTimeSlots);
+        reload(ResourceKind.LAB_ROOM, LabRoom.class,
+                LabRoom::getId, LabRoom::getUnavailableDates, LabRoom::getUnavailableTimeSlots);
+        reload(ResourceKind.TEACHING_ASSISTANT, TeachingAssistant.class,
+                TeachingAssistant::getId, TeachingAssistant::getUnavailableDates, TeachingAssistant::getUnavailableTimeSlots);
+        lastReload = Instant.now();
+        if (!ready) {
+            ready = true;
+            logger.info("Availability index loaded: {}", resourceCounts());
+        }
+    }
+
+    public void put(ResourceKind kind, String id, Collection<LocalDate> unavailableDates,
+                    Collection<String> unavailableTimeSlots) {
+        if (enabled && id != null) {
+            indexes.get(kind).put(id, new Blocks(unavailableDates, unavailableTimeSlots));
+        }
+    }
+
+    public void remove(ResourceKind kind, String id) {
+        if (enabled && id != null) {
+            indexes.get(kind).remove(id);
+        }
+    }
+
+    public boolean anyAvailable(ResourceKind kind, LocalDate date, String timeSlot) {
+        checks.increment();
+        Snapshot snapshot = indexes.get(kind).snapshot;
+        long[] day = snapshot.blockedByDay.get(date.toEpochDay());
+        long[] slot = slotBlocks(snapshot, timeSlot);
+        long[] live = snapshot.live;
+        for (int i = 0; i < live.length; i++) {
+            if (free(live, day, slot, i) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The first free resource at (date, slot) in index order, or null when none is free.
+     */
+    public String firstAvailableId(ResourceKind kind, LocalDate date, String timeSlot) {
+        checks.increment();
+        Snapshot snapshot = indexes.get(kind).snapshot;
+        long[] day = snapshot.blockedByDay.get(date.toEpochDay());
+        long[] slot = slotBlocks(snapshot, timeSlot);
+        long[] live = snapshot.live;
+        for (int i = 0; i < live.length; i++) {
+            long word = free(live, day, slot, i);
+            if (word != 0) {
+                return snapshot.resourceIds[i * 64 + Long.numberOfTrailingZeros(word)];
+            }
+        }
+        return null;
+    }
+
+    public List<String> availableIds(ResourceKind kind, LocalDate date, String timeSlot) {
+        checks.increment();
+        Snapshot snapshot = indexes.get(kind).snapshot;
+        long[] day = snapshot.blockedByDay.get(date.toEpochDay());
+        long[] slot = slotBlocks(snapshot, timeSlot);
+        long[] live = snapshot.live;
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < live.length; i++) {
+            long word = free(live, day, slot, i);
+            while (word != 0) {
+                ids.add(snapshot.resourceIds[i * 64 + Long.numberOfTrailingZeros(word)]);
+                word &= word - 1;
+            }
+        }
+        return ids;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", ready);
+        stats.put("resources", resourceCounts());
+        stats.put("timeSlots", slotIds.size());
+        stats.put("checks", checks.sum());
+        stats.put("rebuilds", rebuilds.sum());
+        stats.put("lastReload", lastReload);
+        return stats;
+    }
+
+    private static long free(long[] live, long[] day, long[] slot, int word) {
+        long bits = live[word];
+        if (day != null) {
+            bits &= ~day[word];
+        }
+        if (slot != null) {
+            bits &= ~slot[word];
+        }
+        return bits;
+    }
+
+    private <T> void reload(ResourceKind kind, Class<T> type, Function<T, String> id,
+                            Function<T, List<LocalDate>> dates, Function<T, List<String>> slots) {
+        KindIndex index = indexes.get(kind);
+        Query query = new Query();
+        query.fields().include("unavailableDates", "unavailableTimeSlots");
+
+        boolean replaced;
+        do {
+            long modCount = index.modCount;
+            Map<String, Blocks> loaded = new HashMap<>();
+            for (T resource : mongoTemplate.find(query, type)) {
+                loaded.put(id.apply(resource), new Blocks(dates.apply(resource), slots.apply(resource)));
+            }
+            // A local write during the read may be newer than what was loaded. Once the index is
+            // ready the next scheduled reload catches up; the first load retries instead.
+            replaced = index.replaceAll(loaded, modCount);
+        } while (!replaced && !ready);
+    }
+
+    private Map<ResourceKind, Integer> resourceCounts() {
+        Map<ResourceKind, Integer> counts = new EnumMap<>(ResourceKind.class);
+        indexes.forEach((kind, index) -> counts.put(kind, index.entries.size()));
+        return counts;
+    }
+
+    private int slotId(String timeSlot) {
+        // Kinds rebuild under their own locks, so id assignment needs one of its own.
+        synchronized (slotIds) {
+            return slotIds.computeIfAbsent(timeSlot, slot -> slotIds.size());
+        }
+    }
+
+    private long[] slotBlocks(Snapshot snapshot, String timeSlot) {
+        return timeSlot == null ? null : snapshot.slotBlocks(slotIds.get(timeSlot));
+    }
+
+    private record Blocks(Collection<LocalDate> dates, Collection<String> timeSlots) {
+        Blocks {
+            dates = dates == null ? List.of() : dates.stream().filter(Objects::nonNull).toList();
+            timeSlots = timeSlots == null ? List.of() : timeSlots.stream().filter(Objects::nonNull).toList();
+        }
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new String[0], new long[0], Map.of(), new long[0][]);
+
+        final String[] resourceIds;
+        final long[] live;
+        final Map<Long, long[]> blockedByDay;
+        final long[][] blockedBySlot;
+
+        Snapshot(String[] resourceIds, long[] live, Map<Long, long[]> blockedByDay, long[][] blockedBySlot) {
+            this.resourceIds = resourceIds;
+            this.live = live;
+            this.blockedByDay = blockedByDay;
+            this.blockedBySlot = blockedBySlot;
+        }
+
+        long[] slotBlocks(Integer slotId) {
+            return slotId != null && slotId < blockedBySlot.length ? blockedBySlot[slotId] : null;
+        }
+    }
+
+    private final class KindIndex {
+        // Insertion order keeps int ids stable between rebuilds unless resources are removed.
+        private final Map<String, Blocks> entries = new LinkedHashMap<>();
+        private volatile long modCount;
+        private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+        synchronized void put(String id, Blocks blocks) {
+            entries.put(id, blocks);
+            modCount++;
+            rebuild();
+        }
+
+        synchronized void remove(String id) {
+            if (entries.remove(id) != null) {
+                modCount++;
+                rebuild();
+            }
+        }
+
+        synchronized boolean replaceAll(Map<String, Blocks> loaded, long expectedModCount) {
+            if (modCount != expectedModCount) {
+                return false;
+            }
+            entries.keySet().retainAll(loaded.keySet());
+            entries.putAll(loaded);
+            rebuild();
+            return true;
+        }
+
+        private void rebuild() {
+            int words = (entries.size() + 63) >>> 6;
+            String[] resourceIds = new String[entries.size()];
+            long[] live = new long[words];
+            Map<Long, long[]> blockedByDay = new HashMap<>();
+            List<long[]> blockedBySlot = new ArrayList<>();
+
+            int bit = 0;
+            for (Map.Entry<String, Blocks> entry : entries.entrySet()) {
+                resourceIds[bit] = entry.getKey();
+                int word = bit >>> 6;
+                long mask = 1L << bit;
+                live[word] |= mask;
+                for (LocalDate date : entry.getValue().dates()) {
+                    blockedByDay.computeIfAbsent(date.toEpochDay(), day -> new long[words])[word] |= mask;
+                }
+                for (String timeSlot : entry.getValue().timeSlots()) {
+                    int slot = slotId(timeSlot);
+                    while (blockedBySlot.size() <= slot) {
+                        blockedBySlot.add(null);
+                    }
+                    if (blockedBySlot.get(slot) == null) {
+                        blockedBySlot.set(slot, new long[words]);
+                    }
+                    blockedBySlot.get(slot)[word] |= mask;
+                }
+                bit++;
+            }
+
+            snapshot = new Snapshot(resourceIds, live, blockedByDay, blockedBySlot.toArray(new long[0][]));
+            rebuilds.increment();
+        }
+    }
+}
@@ -7,29 +7,37 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class InstructorService {
 
     private final InstructorRepository instructorRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
-    public InstructorService(InstructorRepository instructorRepository) {
+    public InstructorService(InstructorRepository instructorRepository,
+                             AvailabilityIndex availabilityIndex,
+                             ReferenceDataCache referenceDataCache) {
         this.instructorRepository = instructorRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.referenceDataCache = referenceDataCache;
     }
 
     public List<Instructor> getAllInstructors() {
-        return instructorRepository.findAll();
+        return referenceDataCache.instructors();
     }
 
     public Instructor createInstructor(Instructor instructor) {
-        return instructorRepository.save(instructor);
+        return index(instructorRepository.save(instructor));
     }
 
     public Optional<Instructor> getInstructorById(String id) {
-        return instructorRepository.findById(id);
+        return referenceDataCache.instructor(id);
     }
 
     public Instructor updateInstructor(String id, Instructor instructorDetails) {
@@ -38,17 +46,29 @@ public class InstructorService {
         instructor.setEmail(instructorDetails.getEmail());
         instructor.setUnavailableDates(instructorDetails.getUnavailableDates());
         instructor.setUnavailableTimeSlots(instructorDetails.getUnavailableTimeSlots());
-        return instructorRepository.save(instructor);
+        return index(instructorRepository.save(instructor));
     }
 
     public void deleteInstructor(String id) {
         instructorRepository.deleteById(id);
+        referenceDataCache.invalidate(ReferenceDataCache.INSTRUCTORS);
+        availabilityIndex.remove(AvailabilityIndex.ResourceKind.INSTRUCTOR, id);
     }
 
     public List<Instructor> getAvailableInstructors(String date, String timeSlot) {
         LocalDate localDate = LocalDate.parse(date, DateTimeFormatter.ISO_DATE);
-        return instructorRepository.findByUnavailableDatesNotContaining(localDate).stream()
-                .filter(instructor -> !instructor.getUnavailableTimeSlots().contains(timeSlot))
-                .toList();
+        if (availabilityIndex.isReady()) {
+            Set<String> ids = new HashSet<>(
+                    availabilityIndex.availableIds(AvailabilityIndex.ResourceKind.INSTRUCTOR, localDate, timeSlot));
+            return referenceDataCache.instructors().stream().filter(resource -> ids.contains(resource.getId())).toList();
+        }
+        return instructorRepository.findByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining(localDate, timeSlot);
+    }
+
+    private Instructor index(Instructor saved) {
+        referenceDataCache.invalidate(ReferenceDataCache.INSTRUCTORS);
+        availabilityIndex.put(AvailabilityIndex.ResourceKind.INSTRUCTOR, saved.getId(),
+                saved.getUnavailableDates(), saved.getUnavailableTimeSlots());
+        return saved;
     }
 }
\ No newline at end of file
@@ -0,0 +1,202 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.uor.engineering.labreschedulingsystem.model.LabSessionRule;
+import com.uor.engineering.labreschedulingsystem.model.Module;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Expands the modules' recurring lab-session rules into per-cohort occurrence bitsets for the
+ * current term, one bit per (teaching day, time slot) cell. A cohort is a (department, semester)
+ * pair, which is how students are enrolled. Whether a student is free at a cell is then two
+ * array lookups. Cohorts are built on first use and dropped whenever the module cache is
+ * invalidated, on this instance or another.
+ */
+@Service
+public class LabCalendarService {
+    private static final Logger logger = LoggerFactory.getLogger(LabCalendarService.class);
+
+    private final ReferenceDataCache referenceDataCache;
+    private final LocalDate termStart;
+    private final int termWeeks;
+    private final List<String> timeSlots;
+    private final Map<String, Integer> slotIndexes = new HashMap<>();
+
+    private final Map<String, CohortCalendar> cohorts = new ConcurrentHashMap<>();
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+
+    public LabCalendarService(ReferenceDataCache referenceDataCache,
+                              @Value("${app.calendar.term-start:}") String termStart,
+                              @Value("${app.calendar.term-weeks:15}") int termWeeks,
+                              @Value("${app.availability.time-slots:08:30-10:30,10:30-12:30,13:30-15:30,15:30-17:30}") List<String> timeSlots) {
+        this.referenceDataCache = referenceDataCache;
+        referenceDataCache.onInvalidate(ReferenceDataCache.MODULES, this::invalidateAll);
+        // Week 1 starts on the Monday of the term's first week.
+        this.termStart = termStart.isBlank() ? null
+                : LocalDate.parse(termStart).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        this.termWeeks = termWeeks;
+        this.timeSlots = List.copyOf(timeSlots);
+        for (int i = 0; i < this.timeSlots.size(); i++) {
+            slotIndexes.put(this.timeSlots.get(i), i);
+        }
+    }
+
+    public boolean isConfigured() {
+        return termStart != null;
+    }
+
+    /**
+     * Throws IllegalArgumentException if any rule cannot be placed on the term calendar.
+     */
+    public void validate(Collection<LabSessionRule> rules) {
+        if (rules == null) {
+            return;
+        }
+        for (LabSessionRule rule : rules) {
+            if (rule.getDayOfWeek() == null || rule.getTimeSlot() == null) {
+                throw new IllegalArgumentException("Lab sessions need a dayOfWeek and a timeSlot");
+            }
+            if (!slotIndexes.containsKey(rule.getTimeSlot())) {
+                throw new IllegalArgumentException("Unknown time slot " + rule.getTimeSlot() + "; expected one of " + timeSlots);
+            }
+            if (rule.getWeeks() != null) {
+                for (Integer week : rule.getWeeks()) {
+                    if (week == null || week < 1 || week > termWeeks) {
+                        throw new IllegalArgumentException("Lab session weeks must be between 1 and " + termWeeks);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Modules of the cohort, other than {@code excludeModuleCode}, with a lab session at (date, slot).
+     * Dates outside the term and unknown slots have no sessions.
+     */
+    public List<String> clashingModules(String department, int semester, LocalDate date, String timeSlot,
+                                        String excludeModuleCode) {
+        checks.increment();
+        int cell = cell(date, timeSlot);
+        if (cell < 0 || department == null) {
+            return List.of();
+        }
+        CohortCalendar calendar = cohort(department, semester);
+        if (calendar.modulesPerCell[cell] == 0) {
+            return List.of();
+        }
+        List<String> clashes = new ArrayList<>();
+        calendar.sessionsByModule.forEach((moduleCode, sessions) -> {
+            if (!moduleCode.equals(excludeModuleCode) && isSet(sessions, cell)) {
+                clashes.add(moduleCode);
+            }
+        });
+        return clashes;
+    }
+
+    public boolean isFree(String department, int semester, LocalDate date, String timeSlot, String excludeModuleCode) {
+        checks.increment();
+        int cell = cell(date, timeSlot);
+        if (cell < 0 || department == null) {
+            return true;
+        }
+        CohortCalendar calendar = cohort(department, semester);
+        int sessions = calendar.modulesPerCell[cell];
+        if (excludeModuleCode != null && sessions > 0) {
+            long[] own = calendar.sessionsByModule.get(excludeModuleCode);
+            if (own != null && isSet(own, cell)) {
+                sessions--;
+            }
+        }
+        return sessions == 0;
+    }
+
+    public void invalidateAll() {
+        cohorts.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("termStart", termStart);
+        stats.put("termWeeks", termWeeks);
+        stats.put("cohorts", cohorts.size());
+        stats.put("checks", checks.sum());
+        stats.put("builds", builds.sum());
+        return stats;
+    }
+
+    private int cell(LocalDate date, String timeSlot) {
+        Integer slot = slotIndexes.get(timeSlot);
+        if (termStart == null || slot == null) {
+            return -1;
+        }
+        long day = date.toEpochDay() - termStart.toEpochDay();
+        if (day < 0 || day >= termWeeks * 7L) {
+            return -1;
+        }
+        return (int) day * timeSlots.size() + slot;
+    }
+
+    private CohortCalendar cohort(String department, int semester) {
+        // The build runs inside the map's bin lock, so invalidateAll() waits for it and drops the result.
+        return cohorts.computeIfAbsent(department + "|" + semester, key -> build(department, semester));
+    }
+
+    private CohortCalendar build(String department, int semester) {
+        int cells = termWeeks * 7 * timeSlots.size();
+        Map<String, long[]> sessionsByModule = new HashMap<>();
+        for (Module module : referenceDataCache.cohortModules(department, semester)) {
+            if (!module.isActive() || module.getSessionRules() == null || module.getSessionRules().isEmpty()) {
+                continue;
+            }
+            long[] sessions = sessionsByModule.computeIfAbsent(module.getModuleCode(), code -> new long[(cells + 63) >>> 6]);
+            for (LabSessionRule rule : module.getSessionRules()) {
+                Integer slot = slotIndexes.get(rule.getTimeSlot());
+                if (rule.getDayOfWeek() == null || slot == null) {
+                    logger.warn("Skipping lab session of {} with unknown day or slot {}", module.getModuleCode(), rule.getTimeSlot());
+                    continue;
+                }
+                for (int week = 1; week <= termWeeks; week++) {
+                    if (rule.getWeeks() != null && !rule.getWeeks().isEmpty() && !rule.getWeeks().contains(week)) {
+                        continue;
+                    }
+                    int day = (week - 1) * 7 + rule.getDayOfWeek().getValue() - 1;
+                    int cell = day * timeSlots.size() + slot;
+                    sessions[cell >>> 6] |= 1L << cell;
+                }
+            }
+        }
+
+        byte[] modulesPerCell = new byte[cells];
+        for (long[] sessions : sessionsByModule.values()) {
+            for (int cell = 0; cell < cells; cell++) {
+                if (isSet(sessions, cell) && modulesPerCell[cell] < Byte.MAX_VALUE) {
+                    modulesPerCell[cell]++;
+                }
+            }
+        }
+        builds.increment();
+        return new CohortCalendar(sessionsByModule, modulesPerCell);
+    }
+
+    private static boolean isSet(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private record CohortCalendar(Map<String, long[]> sessionsByModule, byte[] modulesPerCell) {
+    }
+}
@@ -7,29 +7,37 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class LabRoomService {
 
     private final LabRoomRepository labRoomRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
-    public LabRoomService(LabRoomRepository labRoomRepository) {
+    public LabRoomService(LabRoomRepository labRoomRepository,
+                          AvailabilityIndex availabilityIndex,
+                          ReferenceDataCache referenceDataCache) {
         this.labRoomRepository = labRoomRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.referenceDataCache = referenceDataCache;
     }
 
     public List<LabRoom> getAllLabRooms() {
-        return labRoomRepository.findAll();
+        return referenceDataCache.labRooms();
     }
 
     public LabRoom createLabRoom(LabRoom labRoom) {
-        return labRoomRepository.save(labRoom);
+        return index(labRoomRepository.save(labRoom));
     }
 
     public Optional<LabRoom> getLabRoomById(String id) {
-        return labRoomRepository.findById(id);
+        return referenceDataCache.labRoom(id);
     }
 
     public LabRoom updateLabRoom(String id, LabRoom labRoomDetails) {
@@ -39,17 +47,29 @@ public class LabRoomService {
         labRoom.setEquipment(labRoomDetails.getEquipment());
         labRoom.setUnavailableDates(labRoomDetails.getUnavailableDates());
         labRoom.setUnavailableTimeSlots(labRoomDetails.getUnavailableTimeSlots());
-        return labRoomRepository.save(labRoom);
+        return index(labRoomRepository.save(labRoom));
     }
 
     public void deleteLabRoom(String id) {
         labRoomRepository.deleteById(id);
+        referenceDataCache.invalidate(ReferenceDataCache.LAB_ROOMS);
+        availabilityIndex.remove(AvailabilityIndex.ResourceKind.LAB_ROOM, id);
     }
 
     public List<LabRoom> getAvailableLabRooms(String date, String timeSlot) {
         LocalDate localDate = LocalDate.parse(date, DateTimeFormatter.ISO_DATE);
-        return labRoomRepository.findByUnavailableDatesNotContaining(localDate).stream()
-                .filter(room -> !room.getUnavailableTimeSlots().contains(timeSlot))
-                .toList();
+        if (availabilityIndex.isReady()) {
+            Set<String> ids = new HashSet<>(
+                    availabilityIndex.availableIds(AvailabilityIndex.ResourceKind.LAB_ROOM, localDate, timeSlot));
+            return referenceDataCache.labRooms().stream().filter(resource -> ids.contains(resource.getId())).toList();
+        }
+        return labRoomRepository.findByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining(localDate, timeSlot);
+    }
+
+    private LabRoom index(LabRoom saved) {
+        referenceDataCache.invalidate(ReferenceDataCache.LAB_ROOMS);
+        availabilityIndex.put(AvailabilityIndex.ResourceKind.LAB_ROOM, saved.getId(),
+                saved.getUnavailableDates(), saved.getUnavailableTimeSlots());
+        return saved;
     }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded LRU cache of loaded values for one collection. Entries older than maxAgeMs are
+ * reloaded, which bounds staleness if an invalidation is ever missed. A load that overlaps an
+ * invalidation is returned to its caller but not cached.
+ */
+class NearCache<K, V> {
+
+    private final int maxSize;
+    private final long maxAgeMs;
+    private final Map<K, Cached<V>> entries;
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder servedAgeMs = new LongAdder();
+    private final AtomicLong maxServedAgeMs = new AtomicLong();
+    private final AtomicLong maxInvalidationLagMs = new AtomicLong();
+    private volatile long lastInvalidationLagMs = -1;
+    private volatile long lastInvalidatedAt;
+
+    NearCache(int maxSize, long maxAgeMs) {
+        this.maxSize = maxSize;
+        this.maxAgeMs = maxAgeMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Cached<V>> eldest) {
+                if (size() > NearCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    V get(K key, Supplier<V> loader) {
+        if (maxSize <= 0) {
+            misses.increment();
+            return loader.get();
+        }
+        long now = System.currentTimeMillis();
+        long loadGeneration;
+        synchronized (entries) {
+            Cached<V> entry = entries.get(key);
+            if (entry != null && now - entry.loadedAt() <= maxAgeMs) {
+                long age = now - entry.loadedAt();
+                hits.increment();
+                servedAgeMs.add(age);
+                maxServedAgeMs.accumulateAndGet(age, Math::max);
+                return entry.value();
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+            loadGeneration = generation;
+        }
+
+        misses.increment();
+        V value = loader.get();
+        synchronized (entries) {
+            if (loadGeneration == generation) {
+                // Aged from when the load started, so a write during the load is never hidden longer.
+                entries.put(key, new Cached<>(value, now));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops every entry. {@code lagMs} is how long after the change the invalidation arrived, or
+     * negative for a write made by this instance.
+     */
+    void invalidateAll(long lagMs) {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+        invalidations.increment();
+        lastInvalidatedAt = System.currentTimeMillis();
+        if (lagMs >= 0) {
+            lastInvalidationLagMs = lagMs;
+            maxInvalidationLagMs.accumulateAndGet(lagMs, Math::max);
+        }
+    }
+
+    Map<String, Object> stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", lookups - hitCount);
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("avgServedAgeMs", hitCount == 0 ? 0 : servedAgeMs.sum() / hitCount);
+        stats.put("maxServedAgeMs", maxServedAgeMs.get());
+        stats.put("lastInvalidationLagMs", lastInvalidationLagMs);
+        stats.put("maxInvalidationLagMs", maxInvalidationLagMs.get());
+        stats.put("lastInvalidatedAt", lastInvalidatedAt == 0 ? null : Instant.ofEpochMilli(lastInvalidatedAt));
+        return stats;
+    }
+
+    private record Cached<V>(V value, long loadedAt) {
+    }
+}
@@ -0,0 +1,248 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.uor.engineering.labreschedulingsystem.model.NotificationEvent;
+import com.uor.engineering.labreschedulingsystem.model.NotificationStatus;
+import com.uor.engineering.labreschedulingsystem.model.User;
+import com.uor.engineering.labreschedulingsystem.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the notification outbox in batches. Each run claims a batch under a fresh claim id,
+ * so several instances can dispatch side by side, and coalesces the events for one recipient
+ * into a single digest email. Failed sends are retried with exponential backoff until
+ * app.notifications.max-attempts is reached.
+ */
+@Service
+public class NotificationDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final ObjectProvider<JavaMailSender> mailSender;
+    private final NotificationOutboxService outboxService;
+
+    @Value("${app.notifications.from:no-reply@lab-rescheduling.local}")
+    private String from;
+
+    @Value("${app.notifications.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.notifications.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.notifications.backoff-base-ms:30000}")
+    private long backoffBaseMs;
+
+    @Value("${app.notifications.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    @Value("${app.notifications.claim-timeout-ms:300000}")
+    private long claimTimeoutMs;
+
+    @Value("${app.notifications.retention-days:7}")
+    private int retentionDays;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder digests = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile boolean senderMissingLogged;
+
+    public NotificationDispatcher(MongoTemplate mongoTemplate,
+                                  UserRepository userRepository,
+                                  ObjectProvider<JavaMailSender> mailSender,
+                                  NotificationOutboxService outboxService) {
+        this.mongoTemplate = mongoTemplate;
+        this.userRepository = userRepository;
+        this.mailSender = mailSender;
+        this.outboxService = outboxService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.dispatch-interval-ms:10000}",
+            initialDelayString = "${app.notifications.dispatch-interval-ms:10000}")
+    public void dispatch() {
+        if (!outboxService.isEnabled()) {
+            return;
+        }
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            if (!senderMissingLogged) {
+                logger.warn("Notifications are enabled but no mail sender is configured (spring.mail.host); events stay queued");
+                senderMissingLogged = true;
+            }
+            return;
+        }
+
+        releaseStaleClaims();
+        List<NotificationEvent> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<NotificationEvent>> byRecipient = batch.stream()
+                .collect(Collectors.groupingBy(NotificationEvent::getRecipientId, LinkedHashMap::new, Collectors.toList()));
+        Map<String, String> emails = userRepository.findAllById(byRecipient.keySet()).stream()
+                .filter(user -> user.getEmail() != null)
+                .collect(Collectors.toMap(User::getId, User::getEmail));
+
+        Map<SimpleMailMessage, List<NotificationEvent>> messages = new LinkedHashMap<>();
+        List<NotificationEvent> undeliverable = new ArrayList<>();
+        byRecipient.forEach((recipientId, events) -> {
+            String email = emails.get(recipientId);
+            if (email == null) {
+                undeliverable.addAll(events);
+            } else {
+                messages.put(digest(email, events), events);
+            }
+        });
+
+        List<NotificationEvent> delivered = new ArrayList<>();
+        Map<NotificationEvent, String> failures = new LinkedHashMap<>();
+        undeliverable.forEach(event -> failures.put(event, "Recipient has no email address"));
+        int digestsSent = 0;
+        if (!messages.isEmpty()) {
+            Map<Object, Exception> failedMessages = Map.of();
+            try {
+                // One SMTP connection for the whole batch.
+                sender.send(messages.keySet().toArray(new SimpleMailMessage[0]));
+            } catch (MailSendException e) {
+                failedMessages = e.getFailedMessages();
+            } catch (MailException e) {
+                failedMessages = messages.keySet().stream()
+                        .collect(Collectors.toMap(message -> (Object) message, message -> (Exception) e));
+            }
+            for (Map.Entry<SimpleMailMessage, List<NotificationEvent>> entry : messages.entrySet()) {
+                Exception error = failedMessages.get(entry.getKey());
+                if (error == null) {
+                    delivered.addAll(entry.getValue());
+                    digestsSent++;
+                } else {
+                    entry.getValue().forEach(event -> failures.put(event, error.getMessage()));
+                }
+            }
+        }
+
+        complete(delivered, failures);
+        sent.add(delivered.size());
+        digests.add(digestsSent);
+        if (!failures.isEmpty()) {
+            logger.warn("Sent {} notifications in {} emails, {} failed", delivered.size(), digestsSent, failures.size());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", outboxService.isEnabled());
+        stats.put("pending", outboxService.isEnabled()
+                ? mongoTemplate.count(Query.query(Criteria.where("status").is(NotificationStatus.PENDING)), NotificationEvent.class)
+                : 0);
+        stats.put("sent", sent.sum());
+        stats.put("digests", digests.sum());
+        stats.put("retried", retried.sum());
+        stats.put("failed", failed.sum());
+        return stats;
+    }
+
+    private List<NotificationEvent> claimBatch() {
+        Instant now = Instant.now();
+        Query due = Query.query(Criteria.where("status").is(NotificationStatus.PENDING).and("nextAttemptAt").lte(now))
+                .with(Sort.by("nextAttemptAt"))
+                .limit(batchSize);
+        due.fields().include("_id");
+        List<String> ids = mongoTemplate.find(due, NotificationEvent.class).stream()
+                .map(NotificationEvent::getId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Another instance may claim some of the same events; only the ones still pending are taken.
+        String claimId = UUID.randomUUID().toString();
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("id").in(ids).and("status").is(NotificationStatus.PENDING)),
+                new Update().set("status", NotificationStatus.SENDING).set("claimedBy", claimId).set("claimedAt", now),
+                NotificationEvent.class);
+        return mongoTemplate.find(Query.query(Criteria.where("claimedBy").is(claimId)), NotificationEvent.class);
+    }
+
+    /**
+     * Returns events claimed by an instance that stopped before finishing them.
+     */
+    private void releaseStaleClaims() {
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("status").is(NotificationStatus.SENDING)
+                        .and("claimedAt").lt(Instant.now().minusMillis(claimTimeoutMs))),
+                new Update().set("status", NotificationStatus.PENDING).unset("claimedBy").unset("claimedAt"),
+                NotificationEvent.class);
+    }
+
+    private void complete(List<NotificationEvent> delivered, Map<NotificationEvent, String> failures) {
+        Instant now = Instant.now();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationEvent.class);
+
+        if (!delivered.isEmpty()) {
+            bulkOps.updateMulti(
+                    Query.query(Criteria.where("id").in(delivered.stream().map(NotificationEvent::getId).toList())),
+                    new Update().set("status", NotificationStatus.SENT).set("sentAt", now)
+                            .set("expiresAt", now.plus(Duration.ofDays(retentionDays)))
+                            .unset("claimedBy").unset("claimedAt"));
+        }
+
+        failures.forEach((event, error) -> {
+            int attempts = event.getAttempts() + 1;
+            Update update = new Update().set("attempts", attempts).set("lastError", error)
+                    .unset("claimedBy").unset("claimedAt");
+            if (attempts >= maxAttempts) {
+                update.set("status", NotificationStatus.FAILED)
+                        .set("expiresAt", now.plus(Duration.ofDays(retentionDays)));
+                failed.increment();
+            } else {
+                long backoff = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempts - 1, 20));
+                update.set("status", NotificationStatus.PENDING).set("nextAttemptAt", now.plusMillis(backoff));
+                retried.increment();
+            }
+            bulkOps.updateOne(Query.query(Criteria.where("id").is(event.getId())), update);
+        });
+
+        bulkOps.execute();
+    }
+
+    private SimpleMailMessage digest(String email, List<NotificationEvent> events) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(email);
+        message.setSubject(events.size() == 1
+                ? "Lab rescheduling update"
+                : events.size() + " lab rescheduling updates");
+        message.setText(events.stream()
+                .sorted((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()))
+                .map(event -> "- " + event.getMessage())
+                .collect(Collectors.joining("\n", "Hello,\n\n", "\n\nLab Rescheduling System")));
+        return message;
+    }
+}
@@ -0,0 +1,112 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.uor.engineering.labreschedulingsystem.config.MongoTopology;
+import com.uor.engineering.labreschedulingsystem.model.Appeal;
+import com.uor.engineering.labreschedulingsystem.model.AppealStatus;
+import com.uor.engineering.labreschedulingsystem.model.NotificationEvent;
+import com.uor.engineering.labreschedulingsystem.model.NotificationType;
+import com.uor.engineering.labreschedulingsystem.model.RequestStatus;
+import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Records notification events in the notification_outbox collection alongside the write that
+ * caused them; {@link NotificationDispatcher} sends them later. On a replica set both writes
+ * share one transaction. A standalone server has no transactions, so there the event is
+ * written straight after the change it describes.
+ */
+@Service
+public class NotificationOutboxService {
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoTopology mongoTopology;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    public NotificationOutboxService(MongoTemplate mongoTemplate,
+                                     MongoTopology mongoTopology,
+                                     MongoDatabaseFactory mongoDatabaseFactory,
+                                     @Value("${app.notifications.enabled:false}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoTopology = mongoTopology;
+        // Local to the outbox so @Transactional elsewhere keeps its current behaviour.
+        this.transactionTemplate = new TransactionTemplate(new MongoTransactionManager(mongoDatabaseFactory));
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs the write and records the notifications derived from its result in the same transaction.
+     */
+    public <T> T writeWithNotifications(Supplier<T> write, Function<T, List<NotificationEvent>> notifications) {
+        if (!enabled) {
+            return write.get();
+        }
+        if (!mongoTopology.isReplicaSet()) {
+            T result = write.get();
+            record(notifications.apply(result));
+            return result;
+        }
+        return transactionTemplate.execute(status -> {
+            T result = write.get();
+            record(notifications.apply(result));
+            return result;
+        });
+    }
+
+    public List<NotificationEvent> requestDecided(RescheduleRequest request) {
+        if (request == null || request.getStudentId() == null) {
+            return List.of();
+        }
+        if (request.getStatus() == RequestStatus.APPROVED) {
+            String date = request.getApprovedDate() != null ? request.getApprovedDate() : request.getRequestedDate();
+            return List.of(new NotificationEvent(request.getStudentId(), NotificationType.REQUEST_APPROVED, request.getId(),
+                    "Your reschedule request for " + request.getModuleCode() + " was approved for " + date
+                            + (request.getRequestedTimeSlot() != null ? " (" + request.getRequestedTimeSlot() + ")" : "") + "."));
+        }
+        if (request.getStatus() == RequestStatus.REJECTED) {
+            return List.of(new NotificationEvent(request.getStudentId(), NotificationType.REQUEST_REJECTED, request.getId(),
+                    "Your reschedule request for " + request.getModuleCode() + " was rejected"
+                            + (request.getRejectionReason() != null ? ": " + request.getRejectionReason() : ".")));
+        }
+        return List.of();
+    }
+
+    public List<NotificationEvent> requestsDecided(Collection<RescheduleRequest> requests) {
+        return requests.stream().flatMap(request -> requestDecided(request).stream()).toList();
+    }
+
+    public List<NotificationEvent> appealReviewed(Appeal appeal) {
+        if (appeal == null || appeal.getStudentId() == null) {
+            return List.of();
+        }
+        if (appeal.getStatus() == AppealStatus.APPROVED) {
+            return List.of(new NotificationEvent(appeal.getStudentId(), NotificationType.APPEAL_APPROVED, appeal.getId(),
+                    "Your appeal was approved" + (appeal.getPanelDecision() != null ? ": " + appeal.getPanelDecision() : ".")));
+        }
+        if (appeal.getStatus() == AppealStatus.REJECTED) {
+            return List.of(new NotificationEvent(appeal.getStudentId(), NotificationType.APPEAL_REJECTED, appeal.getId(),
+                    "Your appeal was rejected" + (appeal.getPanelDecision() != null ? ": " + appeal.getPanelDecision() : ".")));
+        }
+        return List.of();
+    }
+
+    private void record(List<NotificationEvent> events) {
+        if (!events.isEmpty()) {
+            mongoTemplate.insertAll(events);
+        }
+    }
+}
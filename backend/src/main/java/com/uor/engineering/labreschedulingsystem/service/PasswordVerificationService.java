@@ -0,0 +1,155 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs password verification (BCrypt) on a bounded pool separate from the request threads.
+ * Logins are rejected fast when the pool queue is full, and usernames with repeated failures
+ * are backed off before any hashing is done.
+ */
+@Service
+public class PasswordVerificationService {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordVerificationService.class);
+
+    private static final int MAX_TRACKED_USERNAMES = 10_000;
+
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor executor;
+    private final int maxFailedAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+
+    private final Map<String, FailedAttempts> failedAttempts = new ConcurrentHashMap<>();
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder verificationNanos = new LongAdder();
+    private final AtomicLong maxVerificationNanos = new AtomicLong();
+
+    public PasswordVerificationService(AuthenticationManager authenticationManager,
+                                       @Value("${app.auth.hash-threads:0}") int hashThreads,
+                                       @Value("${app.auth.queue-capacity:200}") int queueCapacity,
+                                       @Value("${app.auth.max-failed-attempts:5}") int maxFailedAttempts,
+                                       @Value("${app.auth.backoff-base-ms:1000}") long backoffBaseMs,
+                                       @Value("${app.auth.backoff-max-ms:300000}") long backoffMaxMs) {
+        this.authenticationManager = authenticationManager;
+        this.maxFailedAttempts = maxFailedAttempts;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<Authentication> authenticate(String username, String password) {
+        long retryAfterMs = remainingBackoffMs(username);
+        if (retryAfterMs > 0) {
+            throttled.increment();
+            return CompletableFuture.failedFuture(new LoginThrottledException(
+                    "Too many failed login attempts. Try again later.", toSeconds(retryAfterMs)));
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> verify(username, password), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            logger.warn("Login rejected, password verification queue is full ({} waiting)", executor.getQueue().size());
+            return CompletableFuture.failedFuture(new ServiceBusyException(
+                    "Login service is busy. Please retry shortly.", 1));
+        }
+    }
+
+    private Authentication verify(String username, String password) {
+        long start = System.nanoTime();
+        try {
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, password));
+            failedAttempts.remove(username);
+            return authentication;
+        } catch (BadCredentialsException e) {
+            recordFailure(username);
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            verifications.increment();
+            verificationNanos.add(elapsed);
+            maxVerificationNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    private void recordFailure(String username) {
+        long now = System.currentTimeMillis();
+        if (failedAttempts.size() >= MAX_TRACKED_USERNAMES) {
+            failedAttempts.values().removeIf(attempts -> now - attempts.lastFailureAt() > backoffMaxMs);
+        }
+        failedAttempts.merge(username, new FailedAttempts(1, now),
+                (previous, ignored) -> new FailedAttempts(previous.count() + 1, now));
+    }
+
+    private long remainingBackoffMs(String username) {
+        FailedAttempts attempts = failedAttempts.get(username);
+        if (attempts == null || attempts.count() < maxFailedAttempts) {
+            return 0;
+        }
+        int exponent = Math.min(attempts.count() - maxFailedAttempts, 20);
+        long backoff = Math.min(backoffBaseMs << exponent, backoffMaxMs);
+        return attempts.lastFailureAt() + backoff - System.currentTimeMillis();
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(millis + 999));
+    }
+
+    public Map<String, Object> getStats() {
+        long count = verifications.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", executor.getMaximumPoolSize());
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("queueRemainingCapacity", executor.getQueue().remainingCapacity());
+        stats.put("rejected", rejected.sum());
+        stats.put("throttled", throttled.sum());
+        stats.put("trackedUsernames", failedAttempts.size());
+        stats.put("verifications", count);
+        stats.put("avgVerificationMs", count == 0 ? 0.0 : verificationNanos.sum() / (double) count / 1_000_000);
+        stats.put("maxVerificationMs", maxVerificationNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private record FailedAttempts(int count, long lastFailureAt) {
+    }
+}
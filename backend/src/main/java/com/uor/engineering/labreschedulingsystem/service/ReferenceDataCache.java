@@ -0,0 +1,212 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.uor.engineering.labreschedulingsystem.config.MongoTopology;
+import com.uor.engineering.labreschedulingsystem.model.Instructor;
+import com.uor.engineering.labreschedulingsystem.model.LabRoom;
+import com.uor.engineering.labreschedulingsystem.model.Module;
+import com.uor.engineering.labreschedulingsystem.model.TeachingAssistant;
+import com.uor.engineering.labreschedulingsystem.model.User;
+import com.uor.engineering.labreschedulingsystem.repository.InstructorRepository;
+import com.uor.engineering.labreschedulingsystem.repository.LabRoomRepository;
+import com.uor.engineering.labreschedulingsystem.repository.ModuleRepository;
+import com.uor.engineering.labreschedulingsystem.repository.TeachingAssistantRepository;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.MessageListener;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of modules, lab rooms, instructors, TAs and students' cohorts, which change a
+ * few times a term but are read on most requests. Each collection has its own bounded cache that is dropped as a
+ * whole on any write: by the writer on this instance, and through a MongoDB change stream on
+ * every other instance when MongoDB is a replica set. Entries also expire after max-age-ms, which
+ * is the only bound on staleness across instances against a standalone server.
+ *
+ * <p>Cached entities are shared between callers and must not be modified.
+ */
+@Component
+public class ReferenceDataCache {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    public static final String MODULES = "modules";
+    public static final String LAB_ROOMS = "lab_rooms";
+    public static final String INSTRUCTORS = "instructors";
+    public static final String TEACHING_ASSISTANTS = "teaching_assistants";
+    public static final String USERS = "users";
+
+    private static final String ALL = "all";
+
+    private final ModuleRepository moduleRepository;
+    private final LabRoomRepository labRoomRepository;
+    private final InstructorRepository instructorRepository;
+    private final TeachingAssistantRepository taRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MongoTopology mongoTopology;
+
+    private final Map<String, NearCache<String, Object>> caches = new LinkedHashMap<>();
+    private final Map<String, List<Runnable>> listeners = new LinkedHashMap<>();
+    private volatile boolean changeStreamActive;
+    private MessageListenerContainer container;
+
+    public ReferenceDataCache(ModuleRepository moduleRepository,
+                              LabRoomRepository labRoomRepository,
+                              InstructorRepository instructorRepository,
+                              TeachingAssistantRepository taRepository,
+                              MongoTemplate mongoTemplate,
+                              MongoTopology mongoTopology,
+                              @Value("${app.reference-cache.max-entries:1000}") int maxEntries,
+                              @Value("${app.reference-cache.max-age-ms:600000}") long maxAgeMs) {
+        this.moduleRepository = moduleRepository;
+        this.labRoomRepository = labRoomRepository;
+        this.instructorRepository = instructorRepository;
+        this.taRepository = taRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.mongoTopology = mongoTopology;
+        for (String collection : List.of(MODULES, LAB_ROOMS, INSTRUCTORS, TEACHING_ASSISTANTS, USERS)) {
+            caches.put(collection, new NearCache<>(maxEntries, maxAgeMs));
+            listeners.put(collection, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!mongoTopology.isReplicaSet()) {
+            logger.info("MongoDB is standalone; reference data cache relies on local invalidation and expiry");
+            return;
+        }
+        container = new DefaultMessageListenerContainer(mongoTemplate);
+        caches.keySet().forEach(collection -> container.register(changeStreamRequest(collection), Document.class));
+        container.start();
+        changeStreamActive = true;
+        logger.info("Reference data cache invalidated by MongoDB change streams");
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    public Optional<Module> module(String moduleCode) {
+        return cached(MODULES, "code:" + moduleCode, () -> moduleRepository.findByModuleCode(moduleCode));
+    }
+
+    public List<Module> modules() {
+        return cached(MODULES, ALL, () -> List.copyOf(moduleRepository.findAll()));
+    }
+
+    public List<Module> cohortModules(String department, int semester) {
+        return cached(MODULES, "cohort:" + department + "|" + semester,
+                () -> List.copyOf(moduleRepository.findByDepartmentAndSemester(department, semester)));
+    }
+
+    public List<LabRoom> labRooms() {
+        return cached(LAB_ROOMS, ALL, () -> List.copyOf(labRoomRepository.findAll()));
+    }
+
+    public Optional<LabRoom> labRoom(String id) {
+        return cached(LAB_ROOMS, "id:" + id, () -> labRoomRepository.findById(id));
+    }
+
+    public List<Instructor> instructors() {
+        return cached(INSTRUCTORS, ALL, () -> List.copyOf(instructorRepository.findAll()));
+    }
+
+    public Optional<Instructor> instructor(String id) {
+        return cached(INSTRUCTORS, "id:" + id, () -> instructorRepository.findById(id));
+    }
+
+    public List<TeachingAssistant> teachingAssistants() {
+        return cached(TEACHING_ASSISTANTS, ALL, () -> List.copyOf(taRepository.findAll()));
+    }
+
+    public Optional<TeachingAssistant> teachingAssistant(String id) {
+        return cached(TEACHING_ASSISTANTS, "id:" + id, () -> taRepository.findById(id));
+    }
+
+    /**
+     * The department and semester of the user, which decide the lab timetable a student follows.
+     * Only those two fields are read and cached.
+     */
+    public Optional<Cohort> cohort(String userId) {
+        return cached(USERS, "cohort:" + userId, () -> {
+            Query query = Query.query(Criteria.where("id").is(userId));
+            query.fields().include("department", "semester");
+            return Optional.ofNullable(mongoTemplate.findOne(query, User.class))
+                    .map(user -> new Cohort(user.getDepartment(), user.getSemester()));
+        });
+    }
+
+    /**
+     * Called after a write to the collection on this instance.
+     */
+    public void invalidate(String collection) {
+        invalidate(collection, -1);
+    }
+
+    /**
+     * Runs the listener whenever the collection's cache is dropped, so caches derived from it can follow.
+     */
+    public void onInvalidate(String collection, Runnable listener) {
+        listeners.get(collection).add(listener);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("changeStream", changeStreamActive);
+        caches.forEach((collection, cache) -> stats.put(collection, cache.stats()));
+        return stats;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String collection, String key, Supplier<T> loader) {
+        return (T) caches.get(collection).get(key, (Supplier<Object>) loader);
+    }
+
+    private void invalidate(String collection, long lagMs) {
+        caches.get(collection).invalidateAll(lagMs);
+        for (Runnable listener : listeners.get(collection)) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.warn("Cache invalidation listener for {} failed", collection, e);
+            }
+        }
+    }
+
+    private ChangeStreamRequest<Document> changeStreamRequest(String collection) {
+        MessageListener<ChangeStreamDocument<Document>, Document> listener = message -> {
+            ChangeStreamDocument<Document> change = message.getRaw();
+            long lagMs = change != null && change.getClusterTime() != null
+                    ? Math.max(0, System.currentTimeMillis() - change.getClusterTime().getTime() * 1000L)
+                    : 0;
+            invalidate(collection, lagMs);
+        };
+        return ChangeStreamRequest.builder(listener)
+                .collection(collection)
+                .build();
+    }
+
+    public record Cohort(String department, int semester) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.uor.engineering.labreschedulingsystem.dto.RequestFilter;
+import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
+import com.uor.engineering.labreschedulingsystem.repository.RescheduleRequestRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes reschedule requests straight from a MongoDB cursor to the response, one record at a
+ * time, so memory use does not depend on how many requests are exported.
+ */
+@Service
+public class RequestExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSH_EVERY = 1000;
+
+    private static final String[] CSV_HEADER = {
+            "id", "studentId", "studentName", "moduleCode", "originalLabDate", "requestedDate",
+            "requestedTimeSlot", "status", "approvedDate", "reason", "rejectionReason", "createdAt", "updatedAt"
+    };
+
+    private final RescheduleRequestRepository requestRepository;
+    private final ObjectWriter jsonWriter;
+
+    public RequestExportService(RescheduleRequestRepository requestRepository, ObjectMapper objectMapper) {
+        this.requestRepository = requestRepository;
+        this.jsonWriter = objectMapper.writerFor(RescheduleRequest.class);
+    }
+
+    public void export(RequestFilter filter, Format format, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE, true) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        if (format == Format.CSV) {
+            writeCsvRow(writer, CSV_HEADER);
+        }
+
+        try (Stream<RescheduleRequest> requests = requestRepository.streamAll(filter)) {
+            Iterator<RescheduleRequest> iterator = requests.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                RescheduleRequest request = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, toCsvFields(request));
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(request));
+                    writer.write('\n');
+                }
+                if (++written % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+
+        writer.flush();
+        if (target instanceof GZIPOutputStream gzipStream) {
+            gzipStream.finish();
+        }
+        out.flush();
+    }
+
+    private static String[] toCsvFields(RescheduleRequest request) {
+        return new String[]{
+                request.getId(),
+                request.getStudentId(),
+                request.getStudentName(),
+                request.getModuleCode(),
+                request.getOriginalLabDate(),
+                request.getRequestedDate(),
+                request.getRequestedTimeSlot(),
+                request.getStatus() != null ? request.getStatus().name() : null,
+                request.getApprovedDate(),
+                request.getReason(),
+                request.getRejectionReason(),
+                request.getCreatedAt() != null ? request.getCreatedAt().toString() : null,
+                request.getUpdatedAt() != null ? request.getUpdatedAt().toString() : null
+        };
+    }
+
+    private static void writeCsvRow(Writer writer, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvField(writer, fields[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Writes one RFC 4180 field. Free text such as reasons and names comes from users, and a cell
+     * starting with =, +, -, @, tab or CR is run as a formula by spreadsheet applications, so such
+     * values are prefixed with an apostrophe to keep them literal text.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
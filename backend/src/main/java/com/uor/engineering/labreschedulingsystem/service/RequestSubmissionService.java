@@ -0,0 +1,124 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.mongodb.MongoException;
+import com.uor.engineering.labreschedulingsystem.config.MongoTopology;
+import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
+import com.uor.engineering.labreschedulingsystem.model.SlotHold;
+import com.uor.engineering.labreschedulingsystem.repository.RescheduleRequestRepository;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Turns a submitted form into a saved request: the student's hold is consumed, the seat is
+ * claimed and the request is inserted. On a replica set the three writes share one transaction,
+ * retried when MongoDB reports a transient conflict on the session document. A standalone server
+ * has no transactions, so there each failure undoes the earlier steps; a crash part way leaves at
+ * most a seat with no request, which the ledger drops when it next reconciles.
+ */
+@Service
+public class RequestSubmissionService {
+    private static final Logger logger = LoggerFactory.getLogger(RequestSubmissionService.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final RescheduleRequestRepository requestRepository;
+    private final SeatLedgerService seatLedgerService;
+    private final SlotHoldService slotHoldService;
+    private final MongoTopology mongoTopology;
+    private final TransactionTemplate transactionTemplate;
+
+    public RequestSubmissionService(RescheduleRequestRepository requestRepository,
+                                    SeatLedgerService seatLedgerService,
+                                    SlotHoldService slotHoldService,
+                                    MongoTopology mongoTopology,
+                                    MongoDatabaseFactory mongoDatabaseFactory) {
+        this.requestRepository = requestRepository;
+        this.seatLedgerService = seatLedgerService;
+        this.slotHoldService = slotHoldService;
+        this.mongoTopology = mongoTopology;
+        // Local to submissions so @Transactional elsewhere keeps its current behaviour.
+        this.transactionTemplate = new TransactionTemplate(new MongoTransactionManager(mongoDatabaseFactory));
+    }
+
+    /**
+     * Saves the new request with a seat in its session, converting {@code holdId} when given.
+     * Throws SlotUnavailableException when the hold has lapsed or no seat is left.
+     */
+    public RescheduleRequest submit(RescheduleRequest request, String studentId, String holdId) {
+        request.setId(new ObjectId().toHexString());
+        // Outside the transaction: a racing first insert of the session would abort it.
+        seatLedgerService.ensureSession(request);
+
+        if (!mongoTopology.isReplicaSet()) {
+            return submitWithUndo(request, studentId, holdId);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    if (holdId != null && slotHoldService.consume(holdId, studentId, request) == null) {
+                        throw holdLapsed();
+                    }
+                    if (!seatLedgerService.claim(request, studentId)) {
+                        throw noSeatsLeft(request);
+                    }
+                    return requestRepository.save(request);
+                });
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS || !isTransientTransactionError(e)) {
+                    throw e;
+                }
+                logger.debug("Retrying submission for {} after a transient transaction error (attempt {})",
+                        request.getModuleCode(), attempt);
+            }
+        }
+    }
+
+    private RescheduleRequest submitWithUndo(RescheduleRequest request, String studentId, String holdId) {
+        SlotHold hold = null;
+        if (holdId != null) {
+            hold = slotHoldService.consume(holdId, studentId, request);
+            if (hold == null) {
+                throw holdLapsed();
+            }
+        }
+        if (!seatLedgerService.claim(request, studentId)) {
+            if (hold != null) {
+                slotHoldService.restore(hold);
+            }
+            throw noSeatsLeft(request);
+        }
+        try {
+            return requestRepository.save(request);
+        } catch (RuntimeException e) {
+            seatLedgerService.release(request);
+            if (hold != null) {
+                slotHoldService.restore(hold);
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isTransientTransactionError(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException
+                    && mongoException.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static SlotUnavailableException holdLapsed() {
+        return new SlotUnavailableException("Your hold on this slot has expired or does not match the request");
+    }
+
+    private static SlotUnavailableException noSeatsLeft(RescheduleRequest request) {
+        return new SlotUnavailableException("No seats are left for " + request.getModuleCode() + " on "
+                + request.getRequestedDate() + " " + request.getRequestedTimeSlot());
+    }
+}
@@ -0,0 +1,290 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.uor.engineering.labreschedulingsystem.dto.BulkTransitionResultDto;
+import com.uor.engineering.labreschedulingsystem.dto.StatusTransitionDto;
+import com.uor.engineering.labreschedulingsystem.model.RequestStatus;
+import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
+import com.uor.engineering.labreschedulingsystem.security.UserPrincipal;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies one approval-workflow step to a reschedule request as a single conditional
+ * findAndModify. The write only matches while the request is still in the status the
+ * reviewer saw, so concurrent reviewers cannot overwrite each other.
+ */
+@Service
+public class RequestTransitionService implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(RequestTransitionService.class);
+
+    private static final Map<RequestStatus, Set<RequestStatus>> ALLOWED_TRANSITIONS = new EnumMap<>(RequestStatus.class);
+    private static final Map<RequestStatus, Set<String>> REVIEWER_ROLES = new EnumMap<>(RequestStatus.class);
+
+    static {
+        ALLOWED_TRANSITIONS.put(RequestStatus.PENDING,
+                EnumSet.of(RequestStatus.LAB_ADVISOR_REVIEWED, RequestStatus.REJECTED));
+        ALLOWED_TRANSITIONS.put(RequestStatus.LAB_ADVISOR_REVIEWED,
+                EnumSet.of(RequestStatus.MODULE_COORDINATOR_REVIEWED, RequestStatus.REJECTED));
+        ALLOWED_TRANSITIONS.put(RequestStatus.MODULE_COORDINATOR_REVIEWED,
+                EnumSet.of(RequestStatus.LAB_COORDINATOR_REVIEWED, RequestStatus.APPROVED, RequestStatus.REJECTED));
+        ALLOWED_TRANSITIONS.put(RequestStatus.LAB_COORDINATOR_REVIEWED,
+                EnumSet.of(RequestStatus.APPROVED, RequestStatus.REJECTED));
+
+        // The role that acts on a request while it is in the given status.
+        REVIEWER_ROLES.put(RequestStatus.PENDING, Set.of("ROLE_LAB_ADVISOR"));
+        REVIEWER_ROLES.put(RequestStatus.LAB_ADVISOR_REVIEWED, Set.of("ROLE_MODULE_COORDINATOR"));
+        REVIEWER_ROLES.put(RequestStatus.MODULE_COORDINATOR_REVIEWED, Set.of("ROLE_LAB_COORDINATOR"));
+        REVIEWER_ROLES.put(RequestStatus.LAB_COORDINATOR_REVIEWED, Set.of("ROLE_LAB_COORDINATOR"));
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final StatusEventService statusEventService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final SeatLedgerService seatLedgerService;
+
+    public RequestTransitionService(MongoTemplate mongoTemplate,
+                                    StatusEventService statusEventService,
+                                    NotificationOutboxService notificationOutboxService,
+                                    SeatLedgerService seatLedgerService) {
+        this.mongoTemplate = mongoTemplate;
+        this.statusEventService = statusEventService;
+        this.notificationOutboxService = notificationOutboxService;
+        this.seatLedgerService = seatLedgerService;
+    }
+
+    /**
+     * Statuses a reviewer holding the given authorities acts on, plus the statuses their
+     * decisions move requests into.
+     */
+    public static Set<RequestStatus> queueStatuses(Collection<String> authorities) {
+        Set<RequestStatus> statuses = EnumSet.noneOf(RequestStatus.class);
+        REVIEWER_ROLES.forEach((status, roles) -> {
+            if (roles.stream().anyMatch(authorities::contains)) {
+                statuses.add(status);
+                statuses.addAll(ALLOWED_TRANSITIONS.get(status));
+            }
+        });
+        return statuses;
+    }
+
+    /**
+     * Documents written before the version field existed would otherwise be treated as new by save().
+     * Runs once all singletons exist, before the web server starts taking requests, so no save()
+     * can reach a legacy document first.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long updated = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("version").is(null)),
+                new Update().set("version", 0L),
+                RescheduleRequest.class).getModifiedCount();
+        if (updated > 0) {
+            logger.info("Initialised version on {} reschedule requests", updated);
+        }
+    }
+
+    public RescheduleRequest transition(String id, StatusTransitionDto transition, UserPrincipal reviewer) {
+        checkTransition(transition.getExpectedStatus(), transition.getTargetStatus(), reviewer);
+
+        Criteria criteria = Criteria.where("id").is(id).and("status").is(transition.getExpectedStatus());
+        if (transition.getExpectedVersion() != null) {
+            criteria.and("version").is(transition.getExpectedVersion());
+        }
+
+        // Reopening a rejected request needs its seat back before the status changes.
+        RescheduleRequest reopened = null;
+        if (reopens(transition)) {
+            reopened = mongoTemplate.findById(id, RescheduleRequest.class);
+            if (reopened == null) {
+                throw new ResourceNotFoundException("Request not found with id: " + id);
+            }
+            if (!seatLedgerService.claim(reopened)) {
+                throw new TransitionConflictException("No seats are left in this session", reopened.getStatus());
+            }
+        }
+
+        RescheduleRequest updated = notificationOutboxService.writeWithNotifications(
+                () -> mongoTemplate.findAndModify(
+                        Query.query(criteria),
+                        buildUpdate(transition),
+                        FindAndModifyOptions.options().returnNew(true),
+                        RescheduleRequest.class),
+                notificationOutboxService::requestDecided);
+
+        if (updated == null) {
+            if (reopened != null) {
+                seatLedgerService.release(reopened);
+            }
+            RescheduleRequest current = mongoTemplate.findById(id, RescheduleRequest.class);
+            if (current == null) {
+                throw new ResourceNotFoundException("Request not found with id: " + id);
+            }
+            throw new TransitionConflictException(
+                    "Request was changed by another reviewer; it is now " + current.getStatus(), current.getStatus());
+        }
+        if (releases(transition)) {
+            seatLedgerService.release(updated);
+        }
+        statusEventService.requestChanged(updated);
+        return updated;
+    }
+
+    /**
+     * Applies the same transition to many requests in one unordered bulk write. Each update keeps
+     * the expected-status precondition; expectedVersion is ignored. The updates carry a fresh
+     * transition id, so one follow-up read of the requested ids tells which of them this call
+     * changed. That read is skipped when every update applied and nothing needs the documents.
+     * Rejected requests can only be reopened one at a time, since each needs a seat first.
+     */
+    public BulkTransitionResultDto bulkTransition(List<String> ids, StatusTransitionDto transition, UserPrincipal reviewer) {
+        checkTransition(transition.getExpectedStatus(), transition.getTargetStatus(), reviewer);
+        if (reopens(transition)) {
+            throw new IllegalArgumentException("Rejected requests must be reopened one at a time");
+        }
+
+        List<String> distinctIds = ids.stream().distinct().collect(Collectors.toList());
+        String transitionId = new ObjectId().toHexString();
+        Update update = buildUpdate(transition).set("lastTransitionId", transitionId);
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RescheduleRequest.class);
+        for (String id : distinctIds) {
+            bulkOps.updateOne(Query.query(Criteria.where("id").is(id).and("status").is(transition.getExpectedStatus())), update);
+        }
+        boolean decision = transition.getTargetStatus() == RequestStatus.APPROVED
+                || transition.getTargetStatus() == RequestStatus.REJECTED;
+        boolean needsApplied = (decision && notificationOutboxService.isEnabled())
+                || releases(transition) || statusEventService.isLocalPublishing();
+
+        BulkWrite result = notificationOutboxService.writeWithNotifications(
+                () -> {
+                    int modified = bulkOps.execute().getModifiedCount();
+                    boolean read = modified < distinctIds.size() || (modified > 0 && needsApplied);
+                    return new BulkWrite(modified, read
+                            ? mongoTemplate.find(Query.query(Criteria.where("id").in(distinctIds)), RescheduleRequest.class)
+                            : null);
+                },
+                write -> decision && write.current() != null
+                        ? notificationOutboxService.requestsDecided(applied(write.current(), transitionId))
+                        : List.of());
+
+        List<BulkTransitionResultDto.Outcome> outcomes = new ArrayList<>(distinctIds.size());
+        if (result.current() == null) {
+            distinctIds.forEach(id -> outcomes.add(new BulkTransitionResultDto.Outcome(
+                    id, BulkTransitionResultDto.Result.UPDATED, transition.getTargetStatus())));
+            return new BulkTransitionResultDto(distinctIds.size(), result.modified(), outcomes);
+        }
+
+        List<RescheduleRequest> applied = applied(result.current(), transitionId);
+        if (releases(transition)) {
+            seatLedgerService.releaseAll(applied);
+        }
+        if (statusEventService.isLocalPublishing()) {
+            applied.forEach(statusEventService::requestChanged);
+        }
+
+        Map<String, RescheduleRequest> byId = result.current().stream()
+                .collect(Collectors.toMap(RescheduleRequest::getId, Function.identity()));
+        for (String id : distinctIds) {
+            RescheduleRequest request = byId.get(id);
+            if (request == null) {
+                outcomes.add(new BulkTransitionResultDto.Outcome(id, BulkTransitionResultDto.Result.NOT_FOUND, null));
+            } else if (transitionId.equals(request.getLastTransitionId())) {
+                outcomes.add(new BulkTransitionResultDto.Outcome(id, BulkTransitionResultDto.Result.UPDATED, request.getStatus()));
+            } else {
+                outcomes.add(new BulkTransitionResultDto.Outcome(id, BulkTransitionResultDto.Result.CONFLICT, request.getStatus()));
+            }
+        }
+        return new BulkTransitionResultDto(distinctIds.size(), result.modified(), outcomes);
+    }
+
+    private static boolean reopens(StatusTransitionDto transition) {
+        return !SeatLedgerService.holdsSeat(transition.getExpectedStatus())
+                && SeatLedgerService.holdsSeat(transition.getTargetStatus());
+    }
+
+    private static boolean releases(StatusTransitionDto transition) {
+        return SeatLedgerService.holdsSeat(transition.getExpectedStatus())
+                && !SeatLedgerService.holdsSeat(transition.getTargetStatus());
+    }
+
+    private static List<RescheduleRequest> applied(List<RescheduleRequest> current, String transitionId) {
+        return current.stream().filter(request -> transitionId.equals(request.getLastTransitionId())).toList();
+    }
+
+    /**
+     * Throws if the reviewer may not move a request from {@code from} to {@code to}.
+     * Admins may apply any transition.
+     */
+    public void checkTransition(RequestStatus from, RequestStatus to, UserPrincipal reviewer) {
+        if (hasRole(reviewer, "ROLE_ADMIN")) {
+            return;
+        }
+        if (!ALLOWED_TRANSITIONS.getOrDefault(from, Set.of()).contains(to)) {
+            throw new IllegalArgumentException("Cannot move a request from " + from + " to " + to);
+        }
+        Set<String> roles = REVIEWER_ROLES.getOrDefault(from, Set.of());
+        if (roles.stream().noneMatch(role -> hasRole(reviewer, role))) {
+            throw new AccessDeniedException("Not allowed to review requests in status " + from);
+        }
+    }
+
+    public Update buildUpdate(StatusTransitionDto transition) {
+        Update update = new Update()
+                .set("status", transition.getTargetStatus())
+                .set("updatedAt", LocalDateTime.now())
+                .inc("version", 1);
+
+        String comment = transition.getComment();
+        switch (transition.getTargetStatus()) {
+            case LAB_ADVISOR_REVIEWED -> setIfPresent(update, "labAdvisorRecommendation", comment);
+            case MODULE_COORDINATOR_REVIEWED -> setIfPresent(update, "moduleCoordinatorApproval", comment);
+            case LAB_COORDINATOR_REVIEWED -> setIfPresent(update, "labCoordinatorApproval", comment);
+            case APPROVED -> {
+                setIfPresent(update, "labCoordinatorApproval", comment);
+                setIfPresent(update, "approvedDate", transition.getApprovedDate());
+            }
+            case REJECTED -> setIfPresent(update, "rejectionReason",
+                    transition.getRejectionReason() != null ? transition.getRejectionReason() : comment);
+            default -> {
+            }
+        }
+        return update;
+    }
+
+    private static void setIfPresent(Update update, String field, String value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+
+    private static boolean hasRole(UserPrincipal principal, String role) {
+        return principal.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals(role));
+    }
+
+    /**
+     * Modified count of a bulk write, and the requested documents as read back after it (null when not read).
+     */
+    private record BulkWrite(int modified, List<RescheduleRequest> current) {
+    }
+}
@@ -1,68 +1,429 @@
 package com.uor.engineering.labreschedulingsystem.service;
 
+import com.uor.engineering.labreschedulingsystem.dto.AvailabilityMatrixDto;
 import com.uor.engineering.labreschedulingsystem.dto.ResourceAvailabilityDto;
+import com.uor.engineering.labreschedulingsystem.dto.SlotSuggestionDto;
+import com.uor.engineering.labreschedulingsystem.model.Instructor;
+import com.uor.engineering.labreschedulingsystem.model.LabRoom;
+import com.uor.engineering.labreschedulingsystem.model.TeachingAssistant;
 import com.uor.engineering.labreschedulingsystem.repository.*;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class ResourceService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ResourceService.class);
+
+    private static final String CHECK_INSTRUCTOR = "instructor";
+    private static final String CHECK_LAB_ROOM = "labRoom";
+    private static final String CHECK_TA = "teachingAssistant";
+    private static final String CHECK_CONFLICTS = "conflicts";
+    private static final String CHECK_HOLDS = "holds";
+
     private final InstructorRepository instructorRepository;
     private final LabRoomRepository labRoomRepository;
     private final TeachingAssistantRepository taRepository;
     private final RescheduleRequestRepository requestRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final SeatLedgerService seatLedgerService;
+    private final ReferenceDataCache referenceDataCache;
+    private final ThreadPoolExecutor checkExecutor;
+    private final long checkTimeoutMs;
+    private final List<String> timeSlots;
+
+    private final Map<String, CheckLatency> checkLatencies = new LinkedHashMap<>();
 
     @Autowired
     public ResourceService(InstructorRepository instructorRepository,
                            LabRoomRepository labRoomRepository,
                            TeachingAssistantRepository taRepository,
-                           RescheduleRequestRepository requestRepository) {
+                           RescheduleRequestRepository requestRepository,
+                           AvailabilityIndex availabilityIndex,
+                           SeatLedgerService seatLedgerService,
+                           ReferenceDataCache referenceDataCache,
+                           @Value("${app.availability.check-threads:8}") int checkThreads,
+                           @Value("${app.availability.check-queue-capacity:200}") int checkQueueCapacity,
+                           @Value("${app.availability.check-timeout-ms:2000}") long checkTimeoutMs,
+                           @Value("${app.availability.time-slots:08:30-10:30,10:30-12:30,13:30-15:30,15:30-17:30}") List<String> timeSlots) {
         this.instructorRepository = instructorRepository;
         this.labRoomRepository = labRoomRepository;
         this.taRepository = taRepository;
         this.requestRepository = requestRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.seatLedgerService = seatLedgerService;
+        this.referenceDataCache = referenceDataCache;
+        this.checkTimeoutMs = checkTimeoutMs;
+        this.timeSlots = List.copyOf(timeSlots);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.checkExecutor = new ThreadPoolExecutor(checkThreads, checkThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(checkQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "availability-check-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        for (String check : List.of(CHECK_INSTRUCTOR, CHECK_LAB_ROOM, CHECK_TA, CHECK_CONFLICTS, CHECK_HOLDS)) {
+            checkLatencies.put(check, new CheckLatency());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkExecutor.shutdownNow();
     }
 
     public ResourceAvailabilityDto checkResourceAvailability(String moduleCode, String date, String timeSlot) {
-        LocalDate localDate = LocalDate.parse(date, DateTimeFormatter.ISO_DATE);
+        return checkResourceAvailability(moduleCode, date, timeSlot, null);
+    }
+
+    /**
+     * Runs the independent checks concurrently. Checks answered by the in-memory availability
+     * index run inline; MongoDB lookups go to a bounded pool, each with its own timeout. If any
+     * check fails or times out, the caller gets a ServiceBusyException straight away. Cancelling
+     * the other futures only abandons their results: CompletableFuture does not interrupt the
+     * worker, so a MongoDB query already running finishes in the background and keeps its pool
+     * thread until then.
+     * Other students' live slot holds count against the seats left in the session; the slot is
+     * unavailable only when none remain.
+     */
+    public ResourceAvailabilityDto checkResourceAvailability(String moduleCode, String date, String timeSlot,
+                                                             String studentId) {
+        // Rejects a malformed date before anything is dispatched.
+        LocalDate.parse(date, DateTimeFormatter.ISO_DATE);
+        boolean inMemory = availabilityIndex.isReady();
 
-        boolean instructorAvailable = checkInstructorAvailability(date, timeSlot);
-        boolean labRoomAvailable = checkRoomAvailability(date, timeSlot);
-        boolean taAvailable = checkTAAvailability(date, timeSlot);
+        List<CompletableFuture<Boolean>> checks = new ArrayList<>(5);
+        try {
+            checks.add(dispatch(CHECK_INSTRUCTOR, () -> checkInstructorAvailability(date, timeSlot), inMemory));
+            checks.add(dispatch(CHECK_LAB_ROOM, () -> checkRoomAvailability(date, timeSlot), inMemory));
+            checks.add(dispatch(CHECK_TA, () -> checkTAAvailability(date, timeSlot), inMemory));
+            checks.add(dispatch(CHECK_CONFLICTS, () -> requestRepository
+                    .findByModuleCodeAndRequestedDateAndRequestedTimeSlot(moduleCode, date, timeSlot).isEmpty(), false));
+            checks.add(dispatch(CHECK_HOLDS, () -> seatLedgerService
+                    .seatsLeft(moduleCode, date, timeSlot, studentId) > 0, false));
+        } catch (RejectedExecutionException e) {
+            checks.forEach(check -> check.cancel(true));
+            logger.warn("Availability check rejected, check queue is full ({} waiting)", checkExecutor.getQueue().size());
+            throw new ServiceBusyException("Availability service is busy. Please retry shortly.", 1);
+        }
 
-        boolean noConflicts = requestRepository.findByModuleCodeAndRequestedDateAndRequestedTimeSlot(moduleCode, date, timeSlot)
-                .isEmpty();
+        // Completes with the first failure, or once every check has finished.
+        CompletableFuture<Void> outcome = new CompletableFuture<>();
+        checks.forEach(check -> check.whenComplete((result, error) -> {
+            if (error != null) {
+                outcome.completeExceptionally(error);
+            }
+        }));
+        CompletableFuture.allOf(checks.toArray(CompletableFuture<?>[]::new)).thenRun(() -> outcome.complete(null));
 
-        boolean allAvailable = instructorAvailable && labRoomAvailable && taAvailable && noConflicts;
+        try {
+            outcome.join();
+        } catch (CompletionException | CancellationException e) {
+            checks.forEach(check -> check.cancel(true));
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof TimeoutException) {
+                throw new ServiceBusyException("Availability check timed out. Please retry shortly.", 1);
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Availability check failed", cause);
+        }
+
+        boolean instructorAvailable = checks.get(0).join();
+        boolean labRoomAvailable = checks.get(1).join();
+        boolean taAvailable = checks.get(2).join();
+        boolean noConflicts = checks.get(3).join();
+        boolean seatsFree = checks.get(4).join();
+
+        boolean allAvailable = instructorAvailable && labRoomAvailable && taAvailable && noConflicts && seatsFree;
 
         String message = allAvailable ? "All resources available" :
                 (!instructorAvailable ? "Instructor not available. " : "") +
                         (!labRoomAvailable ? "Lab room not available. " : "") +
                         (!taAvailable ? "TA not available. " : "") +
-                        (!noConflicts ? "Conflict with existing requests" : "");
+                        (!noConflicts ? "Conflict with existing requests. " : "") +
+                        (!seatsFree ? "No seats left once other students' holds are counted" : "");
 
         return new ResourceAvailabilityDto(moduleCode, date, timeSlot, allAvailable, message);
     }
 
+    public Map<String, Object> getCheckStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        checkLatencies.forEach((check, latency) -> stats.put(check, latency.toMap()));
+        stats.put("queued", checkExecutor.getQueue().size());
+        return stats;
+    }
+
+    private CompletableFuture<Boolean> dispatch(String name, Supplier<Boolean> check, boolean inline) {
+        CheckLatency latency = checkLatencies.get(name);
+        Supplier<Boolean> timed = () -> {
+            long start = System.nanoTime();
+            try {
+                return check.get();
+            } finally {
+                latency.record(System.nanoTime() - start);
+            }
+        };
+        if (inline) {
+            try {
+                return CompletableFuture.completedFuture(timed.get());
+            } catch (RuntimeException e) {
+                latency.failures.increment();
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(timed, checkExecutor)
+                .orTimeout(checkTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    if (error instanceof TimeoutException) {
+                        latency.timeouts.increment();
+                    } else if (error != null) {
+                        latency.failures.increment();
+                    }
+                });
+    }
+
+    /**
+     * Computes the availability of every (date, slot) cell in the range in one pass: conflicting
+     * requests are loaded with a single range query and resources come from the availability
+     * index, or from one read per collection while the index is still loading.
+     */
+    public AvailabilityMatrixDto getAvailabilityMatrix(String moduleCode, LocalDate from, LocalDate to, List<String> timeSlots) {
+        Map<AvailabilityIndex.ResourceKind, ResourceCalendar> calendars = resourceCalendars();
+        ResourceCalendar instructors = calendars.get(AvailabilityIndex.ResourceKind.INSTRUCTOR);
+        ResourceCalendar rooms = calendars.get(AvailabilityIndex.ResourceKind.LAB_ROOM);
+        ResourceCalendar tas = calendars.get(AvailabilityIndex.ResourceKind.TEACHING_ASSISTANT);
+
+        Set<String> requestedCells = requestRepository.findRequestedSlotsInRange(moduleCode, from.toString(), to.toString())
+                .stream()
+                .map(request -> request.getRequestedDate() + "|" + request.getRequestedTimeSlot())
+                .collect(Collectors.toCollection(HashSet::new));
+        requestedCells.addAll(seatLedgerService.fullSessions(moduleCode, from, to));
+
+        List<String> dates = new ArrayList<>();
+        List<String> rows = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            StringBuilder row = new StringBuilder(timeSlots.size());
+            for (String timeSlot : timeSlots) {
+                int cell = 0;
+                if (instructors.anyAvailable(date, timeSlot)) {
+                    cell |= AvailabilityMatrixDto.INSTRUCTOR;
+                }
+                if (rooms.anyAvailable(date, timeSlot)) {
+                    cell |= AvailabilityMatrixDto.LAB_ROOM;
+                }
+                if (tas.anyAvailable(date, timeSlot)) {
+                    cell |= AvailabilityMatrixDto.TEACHING_ASSISTANT;
+                }
+                if (!requestedCells.contains(date + "|" + timeSlot)) {
+                    cell |= AvailabilityMatrixDto.NO_CONFLICT;
+                }
+                row.append(Character.forDigit(cell, 16));
+            }
+            dates.add(date.toString());
+            rows.add(row.toString());
+        }
+        return new AvailabilityMatrixDto(moduleCode, dates, timeSlots, rows);
+    }
+
+    /**
+     * Suggests the k free (date, slot) cells closest to the preferred one, searching forward over
+     * the next {@code days} days and every configured slot. Conflicting requests are loaded with one
+     * range query and resources come from the same preloaded calendars as the matrix; names are
+     * looked up only for the resources in the returned suggestions.
+     */
+    public List<SlotSuggestionDto> suggestAlternativeSlots(String moduleCode, LocalDate preferredDate,
+                                                           String preferredSlot, int days, int limit) {
+        Map<AvailabilityIndex.ResourceKind, ResourceCalendar> calendars = resourceCalendars();
+        ResourceCalendar instructors = calendars.get(AvailabilityIndex.ResourceKind.INSTRUCTOR);
+        ResourceCalendar rooms = calendars.get(AvailabilityIndex.ResourceKind.LAB_ROOM);
+        ResourceCalendar tas = calendars.get(AvailabilityIndex.ResourceKind.TEACHING_ASSISTANT);
+
+        LocalDate lastDate = preferredDate.plusDays(days - 1L);
+        Set<String> requestedCells = requestRepository
+                .findRequestedSlotsInRange(moduleCode, preferredDate.toString(), lastDate.toString())
+                .stream()
+                .map(request -> request.getRequestedDate() + "|" + request.getRequestedTimeSlot())
+                .collect(Collectors.toCollection(HashSet::new));
+        requestedCells.addAll(seatLedgerService.fullSessions(moduleCode, preferredDate, lastDate));
+
+        int slotCount = timeSlots.size();
+        int preferredIndex = Math.max(0, timeSlots.indexOf(preferredSlot));
+        List<SlotSuggestionDto> found = new ArrayList<>();
+        for (int offset = 0; offset < days; offset++) {
+            // Cells on this day and later are at least this far away; stop once k closer ones are known.
+            int nearestRemaining = offset * slotCount;
+            if (found.stream().filter(suggestion -> suggestion.getDistance() < nearestRemaining).count() >= limit) {
+                break;
+            }
+            LocalDate date = preferredDate.plusDays(offset);
+            for (int slotIndex = 0; slotIndex < slotCount; slotIndex++) {
+                String timeSlot = timeSlots.get(slotIndex);
+                if (requestedCells.contains(date + "|" + timeSlot)) {
+                    continue;
+                }
+                String room = rooms.firstAvailable(date, timeSlot);
+                String instructor = room == null ? null : instructors.firstAvailable(date, timeSlot);
+                String ta = instructor == null ? null : tas.firstAvailable(date, timeSlot);
+                if (ta == null) {
+                    continue;
+                }
+                int distance = offset * slotCount + Math.abs(slotIndex - preferredIndex);
+                found.add(new SlotSuggestionDto(date.toString(), timeSlot, room, null, instructor, null, ta, null, distance));
+            }
+        }
+
+        List<SlotSuggestionDto> suggestions = found.stream()
+                .sorted(Comparator.comparingInt(SlotSuggestionDto::getDistance))
+                .limit(limit)
+                .collect(Collectors.toList());
+        fillResourceNames(suggestions);
+        return suggestions;
+    }
+
+    private void fillResourceNames(List<SlotSuggestionDto> suggestions) {
+        if (suggestions.isEmpty()) {
+            return;
+        }
+        Map<String, String> roomNumbers = referenceDataCache.labRooms().stream()
+                .collect(Collectors.toMap(LabRoom::getId, room -> String.valueOf(room.getRoomNumber())));
+        Map<String, String> instructorNames = referenceDataCache.instructors().stream()
+                .collect(Collectors.toMap(Instructor::getId, instructor -> String.valueOf(instructor.getName())));
+        Map<String, String> taNames = referenceDataCache.teachingAssistants().stream()
+                .collect(Collectors.toMap(TeachingAssistant::getId, ta -> String.valueOf(ta.getName())));
+        for (SlotSuggestionDto suggestion : suggestions) {
+            suggestion.setLabRoomNumber(roomNumbers.get(suggestion.getLabRoomId()));
+            suggestion.setInstructorName(instructorNames.get(suggestion.getInstructorId()));
+            suggestion.setTeachingAssistantName(taNames.get(suggestion.getTeachingAssistantId()));
+        }
+    }
+
+    /**
+     * Answers "which resource of one kind is free at (date, slot)" without further queries.
+     */
+    private interface ResourceCalendar {
+        String firstAvailable(LocalDate date, String timeSlot);
+
+        default boolean anyAvailable(LocalDate date, String timeSlot) {
+            return firstAvailable(date, timeSlot) != null;
+        }
+    }
+
+    private Map<AvailabilityIndex.ResourceKind, ResourceCalendar> resourceCalendars() {
+        Map<AvailabilityIndex.ResourceKind, ResourceCalendar> calendars = new EnumMap<>(AvailabilityIndex.ResourceKind.class);
+        if (availabilityIndex.isReady()) {
+            for (AvailabilityIndex.ResourceKind kind : AvailabilityIndex.ResourceKind.values()) {
+                calendars.put(kind, (date, timeSlot) -> availabilityIndex.firstAvailableId(kind, date, timeSlot));
+            }
+            return calendars;
+        }
+        calendars.put(AvailabilityIndex.ResourceKind.INSTRUCTOR, loadedCalendar(referenceDataCache.instructors(),
+                Instructor::getId, Instructor::getUnavailableDates, Instructor::getUnavailableTimeSlots));
+        calendars.put(AvailabilityIndex.ResourceKind.LAB_ROOM, loadedCalendar(referenceDataCache.labRooms(),
+                LabRoom::getId, LabRoom::getUnavailableDates, LabRoom::getUnavailableTimeSlots));
+        calendars.put(AvailabilityIndex.ResourceKind.TEACHING_ASSISTANT, loadedCalendar(referenceDataCache.teachingAssistants(),
+                TeachingAssistant::getId, TeachingAssistant::getUnavailableDates, TeachingAssistant::getUnavailableTimeSlots));
+        return calendars;
+    }
+
+    private static <T> ResourceCalendar loadedCalendar(List<T> resources,
+                                                       Function<T, String> id,
+                                                       Function<T, List<LocalDate>> dates,
+                                                       Function<T, List<String>> timeSlots) {
+        return (date, timeSlot) -> resources.stream()
+                .filter(resource -> (dates.apply(resource) == null || !dates.apply(resource).contains(date))
+                        && (timeSlots.apply(resource) == null || !timeSlots.apply(resource).contains(timeSlot)))
+                .map(id)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * The availability index answers these checks in memory. Until it has loaded they fall back to
+     * an exists query, which no index can serve: "not containing" matches by absence from the
+     * arrays, so MongoDB scans the collection, stopping at the first free resource. Its cost grows
+     * with the number of registered resources.
+     */
     public boolean checkInstructorAvailability(String date, String timeSlot) {
         LocalDate localDate = LocalDate.parse(date, DateTimeFormatter.ISO_DATE);
-        return instructorRepository.findByUnavailableDatesNotContaining(localDate).stream()
-                .anyMatch(instructor -> !instructor.getUnavailableTimeSlots().contains(timeSlot));
+        if (availabilityIndex.isReady()) {
+            return availabilityIndex.anyAvailable(AvailabilityIndex.ResourceKind.INSTRUCTOR, localDate, timeSlot);
+        }
+        return instructorRepository.existsByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining(localDate, timeSlot);
     }
 
     public boolean checkRoomAvailability(String date, String timeSlot) {
         LocalDate localDate = LocalDate.parse(date, DateTimeFormatter.ISO_DATE);
-        return labRoomRepository.findByUnavailableDatesNotContaining(localDate).stream()
-                .anyMatch(room -> !room.getUnavailableTimeSlots().contains(timeSlot));
+        if (availabilityIndex.isReady()) {
+            return availabilityIndex.anyAvailable(AvailabilityIndex.ResourceKind.LAB_ROOM, localDate, timeSlot);
+        }
+        return labRoomRepository.existsByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining(localDate, timeSlot);
     }
 
     public boolean checkTAAvailability(String date, String timeSlot) {
         LocalDate localDate = LocalDate.parse(date, DateTimeFormatter.ISO_DATE);
-        return taRepository.findByUnavailableDatesNotContaining(localDate).stream()
-                .anyMatch(ta -> !ta.getUnavailableTimeSlots().contains(timeSlot));
+        if (availabilityIndex.isReady()) {
+            return availabilityIndex.anyAvailable(AvailabilityIndex.ResourceKind.TEACHING_ASSISTANT, localDate, timeSlot);
+        }
+        return taRepository.existsByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining(localDate, timeSlot);
+    }
+
+    private static final class CheckLatency {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Map<String, Object> toMap() {
+            long checks = count.sum();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", checks);
+            stats.put("avgMicros", checks == 0 ? 0 : totalNanos.sum() / checks / 1_000);
+            stats.put("maxMicros", maxNanos.get() / 1_000);
+            stats.put("failures", failures.sum());
+            stats.put("timeouts", timeouts.sum());
+            return stats;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,256 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.uor.engineering.labreschedulingsystem.dto.RoomAssignmentPlanDto;
+import com.uor.engineering.labreschedulingsystem.model.LabRoom;
+import com.uor.engineering.labreschedulingsystem.model.RequestStatus;
+import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
+import com.uor.engineering.labreschedulingsystem.repository.RescheduleRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns lab rooms to a week of approved reschedule requests. Requests are grouped by
+ * (date, slot, module) and each group is packed into the rooms free in that slot: groups with
+ * the fewest suitable rooms go first, then larger groups, and each takes the smallest free room
+ * that holds it, spilling into further rooms when none does. The result is written back in a
+ * single unordered bulk write.
+ */
+@Service
+public class RoomAssignmentService {
+    private static final Logger logger = LoggerFactory.getLogger(RoomAssignmentService.class);
+
+    private final RescheduleRequestRepository requestRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final MongoTemplate mongoTemplate;
+
+    public RoomAssignmentService(RescheduleRequestRepository requestRepository,
+                                 ReferenceDataCache referenceDataCache,
+                                 MongoTemplate mongoTemplate) {
+        this.requestRepository = requestRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public RoomAssignmentPlanDto assignWeek(LocalDate weekStart, boolean dryRun) {
+        LocalDate weekEnd = weekStart.plusDays(6);
+        List<RescheduleRequest> requests = requestRepository.findSlotsByStatusInRange(
+                RequestStatus.APPROVED, weekStart.toString(), weekEnd.toString());
+        List<LabRoom> rooms = referenceDataCache.labRooms();
+
+        Set<String> moduleCodes = requests.stream()
+                .map(RescheduleRequest::getModuleCode)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, Set<String>> requiredEquipment = new HashMap<>();
+        for (String moduleCode : moduleCodes) {
+            referenceDataCache.module(moduleCode).ifPresent(module ->
+                    requiredEquipment.put(moduleCode, equipmentSet(module.getRequiredEquipment())));
+        }
+
+        long started = System.nanoTime();
+        Plan plan = plan(requests, rooms, requiredEquipment);
+        long planningMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        int updated = dryRun ? 0 : persist(requests, plan.roomByRequest);
+        int assigned = plan.roomByRequest.size();
+        logger.info("Room assignment for week of {}: {} of {} requests placed in {} ms, {} updated",
+                weekStart, assigned, requests.size(), planningMillis, updated);
+
+        return new RoomAssignmentPlanDto(weekStart.toString(), weekEnd.toString(), requests.size(),
+                assigned, requests.size() - assigned, updated, planningMillis, plan.allocations, plan.shortfalls);
+    }
+
+    /**
+     * Sets (or clears) the assigned room on every request whose assignment changed. Each update
+     * only matches while the request is still approved.
+     */
+    private int persist(List<RescheduleRequest> requests, Map<String, LabRoom> roomByRequest) {
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RescheduleRequest.class);
+        int writes = 0;
+        for (RescheduleRequest request : requests) {
+            LabRoom room = roomByRequest.get(request.getId());
+            String roomId = room != null ? room.getId() : null;
+            if (Objects.equals(roomId, request.getAssignedLabRoomId())) {
+                continue;
+            }
+            Update update = new Update().set("updatedAt", now).inc("version", 1);
+            if (room != null) {
+                update.set("assignedLabRoomId", room.getId()).set("assignedLabRoomNumber", room.getRoomNumber());
+            } else {
+                update.unset("assignedLabRoomId").unset("assignedLabRoomNumber");
+            }
+            bulkOps.updateOne(Query.query(Criteria.where("id").is(request.getId())
+                    .and("status").is(RequestStatus.APPROVED)), update);
+            writes++;
+        }
+        return writes == 0 ? 0 : bulkOps.execute().getModifiedCount();
+    }
+
+    static Plan plan(List<RescheduleRequest> requests, List<LabRoom> labRooms,
+                     Map<String, Set<String>> requiredEquipment) {
+        List<Room> rooms = labRooms.stream()
+                .filter(room -> room.getCapacity() > 0)
+                .map(Room::of)
+                .sorted(Comparator.comparingInt(Room::capacity))
+                .toList();
+
+        Plan plan = new Plan();
+        // date -> slot -> module -> requests; sorted so the output reads in calendar order.
+        Map<LocalDate, Map<String, Map<String, List<RescheduleRequest>>>> cells = new TreeMap<>();
+        for (RescheduleRequest request : requests) {
+            LocalDate date = parseDate(request.getRequestedDate());
+            if (date == null || request.getRequestedTimeSlot() == null || request.getModuleCode() == null) {
+                plan.shortfalls.add(new RoomAssignmentPlanDto.Shortfall(request.getRequestedDate(),
+                        request.getRequestedTimeSlot(), request.getModuleCode(), 1,
+                        "Request has no valid date, time slot or module"));
+                continue;
+            }
+            cells.computeIfAbsent(date, d -> new TreeMap<>())
+                    .computeIfAbsent(request.getRequestedTimeSlot(), s -> new TreeMap<>())
+                    .computeIfAbsent(request.getModuleCode(), m -> new ArrayList<>())
+                    .add(request);
+        }
+
+        cells.forEach((date, slots) -> slots.forEach((slot, modules) ->
+                assignCell(date, slot, modules, rooms, requiredEquipment, plan)));
+        return plan;
+    }
+
+    private static void assignCell(LocalDate date, String slot, Map<String, List<RescheduleRequest>> modules,
+                                   List<Room> rooms, Map<String, Set<String>> requiredEquipment, Plan plan) {
+        boolean anyFree = false;
+        boolean[] free = new boolean[rooms.size()];
+        for (int i = 0; i < rooms.size(); i++) {
+            free[i] = rooms.get(i).freeAt(date, slot);
+            anyFree |= free[i];
+        }
+
+        List<Group> groups = new ArrayList<>(modules.size());
+        modules.forEach((moduleCode, members) -> {
+            Set<String> required = requiredEquipment.getOrDefault(moduleCode, Set.of());
+            List<Integer> eligible = new ArrayList<>();
+            for (int i = 0; i < rooms.size(); i++) {
+                if (free[i] && rooms.get(i).equipment().containsAll(required)) {
+                    eligible.add(i);
+                }
+            }
+            members.sort(Comparator.comparing(RescheduleRequest::getCreatedAt,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+            groups.add(new Group(moduleCode, members, required, eligible));
+        });
+        groups.sort(Comparator.comparingInt((Group group) -> group.eligible().size())
+                .thenComparing(Comparator.comparingInt((Group group) -> group.members().size()).reversed()));
+
+        String day = date.toString();
+        boolean[] used = new boolean[rooms.size()];
+        for (Group group : groups) {
+            List<RescheduleRequest> members = group.members();
+            int next = 0;
+            while (next < members.size()) {
+                int remaining = members.size() - next;
+                // Eligible rooms are in ascending capacity, so the first unused one that fits is the
+                // best fit; when none fits, the last unused one is the largest left.
+                int choice = -1;
+                for (int i : group.eligible()) {
+                    if (!used[i]) {
+                        choice = i;
+                        if (rooms.get(i).capacity() >= remaining) {
+                            break;
+                        }
+                    }
+                }
+                if (choice < 0) {
+                    String reason = !anyFree ? "No lab room is available in this slot"
+                            : group.eligible().isEmpty() && !group.required().isEmpty()
+                                    ? "No available room has the required equipment"
+                                    : "Not enough room capacity left in this slot";
+                    plan.shortfalls.add(new RoomAssignmentPlanDto.Shortfall(day, slot, group.moduleCode(), remaining, reason));
+                    break;
+                }
+
+                used[choice] = true;
+                Room room = rooms.get(choice);
+                int take = Math.min(remaining, room.capacity());
+                for (RescheduleRequest request : members.subList(next, next + take)) {
+                    plan.roomByRequest.put(request.getId(), room.labRoom());
+                }
+                plan.allocations.add(new RoomAssignmentPlanDto.Allocation(day, slot, group.moduleCode(),
+                        room.labRoom().getId(), room.labRoom().getRoomNumber(), room.capacity(), take));
+                next += take;
+            }
+        }
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return date == null ? null : LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Equipment names compared case-insensitively; a room's equipment is a comma, semicolon or
+     * slash separated list.
+     */
+    static Set<String> equipmentSet(Collection<String> items) {
+        Set<String> equipment = new HashSet<>();
+        if (items != null) {
+            for (String item : items) {
+                if (item != null && !item.isBlank()) {
+                    equipment.add(item.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return equipment;
+    }
+
+    static final class Plan {
+        final Map<String, LabRoom> roomByRequest = new HashMap<>();
+        final List<RoomAssignmentPlanDto.Allocation> allocations = new ArrayList<>();
+        final List<RoomAssignmentPlanDto.Shortfall> shortfalls = new ArrayList<>();
+    }
+
+    private record Group(String moduleCode, List<RescheduleRequest> members, Set<String> required,
+                         List<Integer> eligible) {
+    }
+
+    private record Room(LabRoom labRoom, int capacity, Set<String> equipment,
+                        Set<LocalDate> blockedDates, Set<String> blockedSlots) {
+        static Room of(LabRoom room) {
+            Set<String> equipment = room.getEquipment() == null ? Set.of()
+                    : equipmentSet(List.of(room.getEquipment().split("[,;/]")));
+            return new Room(room, room.getCapacity(), equipment,
+                    room.getUnavailableDates() == null ? Set.of() : new HashSet<>(room.getUnavailableDates()),
+                    room.getUnavailableTimeSlots() == null ? Set.of() : new HashSet<>(room.getUnavailableTimeSlots()));
+        }
+
+        boolean freeAt(LocalDate date, String slot) {
+            return !blockedDates.contains(date) && !blockedSlots.contains(slot);
+        }
+    }
+}
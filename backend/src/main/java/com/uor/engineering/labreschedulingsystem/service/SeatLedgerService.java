@@ -0,0 +1,372 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.uor.engineering.labreschedulingsystem.model.Module;
+import com.uor.engineering.labreschedulingsystem.model.RequestStatus;
+import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
+import com.uor.engineering.labreschedulingsystem.model.SeatReservation;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the seats taken and held in each (module, date, slot) session. A claim or a hold is one
+ * conditional update that succeeds only while the seats taken plus other students' live holds
+ * are below capacity, so concurrent submissions are serialised by MongoDB on the session
+ * document. Every request that is not rejected holds one seat.
+ */
+@Service
+public class SeatLedgerService implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(SeatLedgerService.class);
+
+    private static final Duration CLAIM_GRACE = Duration.ofMinutes(1);
+
+    private final MongoTemplate mongoTemplate;
+    private final ReferenceDataCache referenceDataCache;
+    private final int defaultSeats;
+
+    private final LongAdder claims = new LongAdder();
+    private final LongAdder claimsRefused = new LongAdder();
+    private final LongAdder releases = new LongAdder();
+
+    public SeatLedgerService(MongoTemplate mongoTemplate,
+                             ReferenceDataCache referenceDataCache,
+                             @Value("${app.requests.seats-per-session:30}") int defaultSeats) {
+        this.mongoTemplate = mongoTemplate;
+        this.referenceDataCache = referenceDataCache;
+        this.defaultSeats = defaultSeats;
+    }
+
+    public static boolean holdsSeat(RequestStatus status) {
+        return status != RequestStatus.REJECTED;
+    }
+
+    /**
+     * Brings the ledger up to date with existing requests before the web server starts taking
+     * claims. Each session's request ids are rebuilt from the live requests and its counter is
+     * recomputed from them, so ids of deleted or rejected requests are dropped and sessions with
+     * no live request are emptied. Emptied sessions are kept rather than deleted, as slot holds
+     * are counted on the same document.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Request ids are generated just before the claim, so a newer unknown id may be a request
+        // another instance is still saving.
+        Instant claimedBefore = Instant.now().minus(CLAIM_GRACE);
+
+        Query query = Query.query(Criteria.where("status").ne(RequestStatus.REJECTED));
+        query.fields().include("moduleCode", "requestedDate", "requestedTimeSlot");
+        Map<String, List<RescheduleRequest>> live = new LinkedHashMap<>();
+        for (RescheduleRequest request : mongoTemplate.find(query, RescheduleRequest.class)) {
+            if (hasSession(request)) {
+                live.computeIfAbsent(key(request), key -> new ArrayList<>()).add(request);
+            }
+        }
+
+        Query recordedQuery = new Query();
+        recordedQuery.fields().include("reserved", "requestIds");
+        Map<String, SeatReservation> recorded = new HashMap<>();
+        for (SeatReservation session : mongoTemplate.find(recordedQuery, SeatReservation.class)) {
+            recorded.put(session.getId(), session);
+        }
+
+        Set<String> keys = new LinkedHashSet<>(live.keySet());
+        keys.addAll(recorded.keySet());
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SeatReservation.class);
+        Map<String, Integer> seats = new HashMap<>();
+        Date now = new Date();
+        int changed = 0;
+        for (String key : keys) {
+            List<RescheduleRequest> requests = live.getOrDefault(key, List.of());
+            Set<String> liveIds = requests.stream().map(RescheduleRequest::getId).collect(Collectors.toSet());
+            SeatReservation session = recorded.get(key);
+            List<String> recordedIds = session == null || session.getRequestIds() == null ? List.of() : session.getRequestIds();
+            List<String> stale = recordedIds.stream()
+                    .filter(id -> !liveIds.contains(id) && claimedBefore(id, claimedBefore))
+                    .toList();
+            if (session != null && stale.isEmpty() && recordedIds.containsAll(liveIds)
+                    && session.getReserved() == recordedIds.size()) {
+                continue;
+            }
+
+            Document fields = new Document("requestIds", new Document("$setUnion", List.of(
+                    new Document("$setDifference", List.of(new Document("$ifNull", List.of("$requestIds", List.of())), stale)),
+                    List.copyOf(liveIds))))
+                    .append("updatedAt", now);
+            if (!requests.isEmpty()) {
+                RescheduleRequest first = requests.get(0);
+                fields.append("moduleCode", first.getModuleCode())
+                        .append("date", first.getRequestedDate())
+                        .append("timeSlot", first.getRequestedTimeSlot())
+                        .append("capacity", seats.computeIfAbsent(first.getModuleCode(), this::seatsFor));
+            }
+            AggregationUpdate update = AggregationUpdate.from(List.of(
+                    context -> new Document("$set", fields),
+                    context -> new Document("$set", new Document("reserved", new Document("$size", "$requestIds")))));
+            Query sessionQuery = Query.query(Criteria.where("id").is(key));
+            if (requests.isEmpty()) {
+                bulkOps.updateOne(sessionQuery, update);
+            } else {
+                bulkOps.upsert(sessionQuery, update);
+            }
+            changed++;
+        }
+        if (changed == 0) {
+            return;
+        }
+        BulkWriteResult result = bulkOps.execute();
+        logger.info("Seat ledger reconciled: {} of {} sessions changed, {} created",
+                changed, keys.size(), result.getUpserts().size());
+    }
+
+    /**
+     * Takes one seat for the request. Returns false when the session is full, counting every
+     * live slot hold. Claiming again for a request that already holds a seat returns false
+     * without counting it twice.
+     */
+    public boolean claim(RescheduleRequest request) {
+        return claim(request, null);
+    }
+
+    /**
+     * As {@link #claim(RescheduleRequest)}, but {@code studentId}'s own hold on the session does
+     * not count against the claim and is dropped by it, so the hold turns into the seat.
+     */
+    public boolean claim(RescheduleRequest request, String studentId) {
+        if (!hasSession(request)) {
+            return true;
+        }
+        String key = key(request);
+        int capacity = seatsFor(request.getModuleCode());
+        Query query = Query.query(Criteria.where("id").is(key)
+                .and("requestIds").ne(request.getId())
+                .andOperator(Criteria.expr(() -> hasRoom(capacity, studentId))));
+        AggregationUpdate update = AggregationUpdate.from(List.of(context -> new Document("$set",
+                new Document("requestIds", new Document("$concatArrays",
+                        List.of(new Document("$ifNull", List.of("$requestIds", List.of())), List.of(request.getId()))))
+                        .append("reserved", new Document("$add", List.of("$reserved", 1)))
+                        .append("holds", otherLiveHolds(studentId))
+                        .append("capacity", capacity)
+                        .append("updatedAt", new Date()))));
+
+        boolean claimed = mongoTemplate.updateFirst(query, update, SeatReservation.class).getModifiedCount() > 0;
+        if (!claimed && !mongoTemplate.exists(Query.query(Criteria.where("id").is(key)), SeatReservation.class)) {
+            ensureSession(request.getModuleCode(), request.getRequestedDate(), request.getRequestedTimeSlot());
+            claimed = mongoTemplate.updateFirst(query, update, SeatReservation.class).getModifiedCount() > 0;
+        }
+        (claimed ? claims : claimsRefused).increment();
+        return claimed;
+    }
+
+    /**
+     * Takes or renews {@code studentId}'s hold on the session until {@code expiresAt}. Returns
+     * false when every seat is taken by a request or held by another student. The check and the
+     * write are one conditional update, so two students cannot both hold the last seat.
+     */
+    public boolean hold(String moduleCode, String date, String timeSlot, String studentId, Instant expiresAt) {
+        ensureSession(moduleCode, date, timeSlot);
+        int capacity = seatsFor(moduleCode);
+        Query query = Query.query(Criteria.where("id").is(key(moduleCode, date, timeSlot))
+                .andOperator(Criteria.expr(() -> hasRoom(capacity, studentId))));
+        Document hold = new Document("studentId", new Document("$literal", studentId))
+                .append("expiresAt", Date.from(expiresAt));
+        AggregationUpdate update = AggregationUpdate.from(List.of(context -> new Document("$set",
+                new Document("holds", new Document("$concatArrays", List.of(otherLiveHolds(studentId), List.of(hold))))
+                        .append("capacity", capacity)
+                        .append("updatedAt", new Date()))));
+        return mongoTemplate.updateFirst(query, update, SeatReservation.class).getModifiedCount() > 0;
+    }
+
+    public void releaseHold(String moduleCode, String date, String timeSlot, String studentId) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(key(moduleCode, date, timeSlot))),
+                new Update().pull("holds", Query.query(Criteria.where("studentId").is(studentId))),
+                SeatReservation.class);
+    }
+
+    /**
+     * Creates the session document if there is none yet, so claims and holds on it are plain
+     * updates. Callers that claim inside a transaction run this first, outside it: a duplicate
+     * key error from a racing insert would abort the transaction.
+     */
+    public void ensureSession(RescheduleRequest request) {
+        if (hasSession(request)) {
+            ensureSession(request.getModuleCode(), request.getRequestedDate(), request.getRequestedTimeSlot());
+        }
+    }
+
+    public void ensureSession(String moduleCode, String date, String timeSlot) {
+        Update update = new Update()
+                .setOnInsert("moduleCode", moduleCode)
+                .setOnInsert("date", date)
+                .setOnInsert("timeSlot", timeSlot)
+                .setOnInsert("capacity", seatsFor(moduleCode))
+                .setOnInsert("reserved", 0)
+                .setOnInsert("requestIds", List.of())
+                .setOnInsert("holds", List.of())
+                .setOnInsert("updatedAt", LocalDateTime.now());
+        try {
+            mongoTemplate.upsert(Query.query(Criteria.where("id").is(key(moduleCode, date, timeSlot))), update,
+                    SeatReservation.class);
+        } catch (DuplicateKeyException e) {
+            // A concurrent first write created it.
+        }
+    }
+
+    /**
+     * Seats in the session neither taken by a request nor held by a student other than
+     * {@code studentId} (which may be null). May be negative while holds outlive freed seats.
+     */
+    public long seatsLeft(String moduleCode, String date, String timeSlot, String studentId) {
+        int capacity = seatsFor(moduleCode);
+        Query query = Query.query(Criteria.where("id").is(key(moduleCode, date, timeSlot)));
+        query.fields().include("reserved", "holds");
+        SeatReservation session = mongoTemplate.findOne(query, SeatReservation.class);
+        return session == null ? capacity : capacity - session.getReserved() - liveHolds(session, studentId, Instant.now());
+    }
+
+    /**
+     * "date|slot" keys of the module's sessions between the two dates with no seat left once
+     * live holds are counted. Session ids start with the module and date, so this is a range
+     * scan on _id.
+     */
+    public Set<String> fullSessions(String moduleCode, LocalDate from, LocalDate to) {
+        int capacity = seatsFor(moduleCode);
+        Query query = Query.query(Criteria.where("id")
+                .gte(moduleCode + "|" + from)
+                .lt(moduleCode + "|" + to.plusDays(1)));
+        query.fields().include("date", "timeSlot", "reserved", "holds");
+        Instant now = Instant.now();
+        Set<String> full = new HashSet<>();
+        for (SeatReservation session : mongoTemplate.find(query, SeatReservation.class)) {
+            if (session.getReserved() + liveHolds(session, null, now) >= capacity) {
+                full.add(session.getDate() + "|" + session.getTimeSlot());
+            }
+        }
+        return full;
+    }
+
+    public void release(RescheduleRequest request) {
+        if (!hasSession(request)) {
+            return;
+        }
+        long released = mongoTemplate.updateFirst(releaseQuery(request), releaseUpdate(request), SeatReservation.class)
+                .getModifiedCount();
+        releases.add(released);
+    }
+
+    public void releaseAll(Collection<RescheduleRequest> requests) {
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SeatReservation.class);
+        int pending = 0;
+        for (RescheduleRequest request : requests) {
+            if (hasSession(request)) {
+                bulkOps.updateOne(releaseQuery(request), releaseUpdate(request));
+                pending++;
+            }
+        }
+        if (pending > 0) {
+            releases.add(bulkOps.execute().getModifiedCount());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("defaultSeatsPerSession", defaultSeats);
+        stats.put("claims", claims.sum());
+        stats.put("claimsRefused", claimsRefused.sum());
+        stats.put("releases", releases.sum());
+        return stats;
+    }
+
+    private int seatsFor(String moduleCode) {
+        return referenceDataCache.module(moduleCode)
+                .map(Module::getSeatsPerSession)
+                .filter(seats -> seats > 0)
+                .orElse(defaultSeats);
+    }
+
+    private static Query releaseQuery(RescheduleRequest request) {
+        return Query.query(Criteria.where("id").is(key(request)).and("requestIds").is(request.getId()));
+    }
+
+    private static Update releaseUpdate(RescheduleRequest request) {
+        return new Update()
+                .inc("reserved", -1)
+                .pull("requestIds", request.getId())
+                .set("updatedAt", LocalDateTime.now());
+    }
+
+    private static long liveHolds(SeatReservation session, String excludeStudentId, Instant now) {
+        if (session.getHolds() == null) {
+            return 0;
+        }
+        return session.getHolds().stream()
+                .filter(hold -> hold.getExpiresAt() != null && hold.getExpiresAt().isAfter(now))
+                .filter(hold -> excludeStudentId == null || !excludeStudentId.equals(hold.getStudentId()))
+                .count();
+    }
+
+    /**
+     * The session's unexpired holds other than {@code studentId}'s, as an aggregation expression.
+     */
+    private static Document otherLiveHolds(String studentId) {
+        return new Document("$filter", new Document("input", new Document("$ifNull", List.of("$holds", List.of())))
+                .append("as", "hold")
+                .append("cond", new Document("$and", List.of(
+                        new Document("$gt", List.of("$$hold.expiresAt", "$$NOW")),
+                        new Document("$ne", List.of("$$hold.studentId", new Document("$literal", studentId)))))));
+    }
+
+    /**
+     * True while the seats taken plus other students' live holds are below capacity.
+     */
+    private static Document hasRoom(int capacity, String studentId) {
+        return new Document("$lt", List.of(
+                new Document("$add", List.of("$reserved", new Document("$size", otherLiveHolds(studentId)))),
+                capacity));
+    }
+
+    private static boolean claimedBefore(String requestId, Instant instant) {
+        return !ObjectId.isValid(requestId) || new ObjectId(requestId).getDate().toInstant().isBefore(instant);
+    }
+
+    private static boolean hasSession(RescheduleRequest request) {
+        return request.getId() != null && request.getModuleCode() != null
+                && request.getRequestedDate() != null && request.getRequestedTimeSlot() != null;
+    }
+
+    private static String key(RescheduleRequest request) {
+        return key(request.getModuleCode(), request.getRequestedDate(), request.getRequestedTimeSlot());
+    }
+
+    private static String key(String moduleCode, String date, String timeSlot) {
+        return moduleCode + "|" + date + "|" + timeSlot;
+    }
+}
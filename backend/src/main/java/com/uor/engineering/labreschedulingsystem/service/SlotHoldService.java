@@ -0,0 +1,162 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.uor.engineering.labreschedulingsystem.dto.SlotHoldDto;
+import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
+import com.uor.engineering.labreschedulingsystem.model.SlotHold;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short-lived holds on a (module, date, slot) session, taken while a student fills in the request
+ * form and turned into the request when it is submitted. The seat itself is held on the session's
+ * ledger document by {@link SeatLedgerService}; slot_holds keeps the student's handle on it, and
+ * expired handles are removed by its TTL index, so nothing here sweeps them.
+ */
+@Service
+public class SlotHoldService {
+
+    private final MongoTemplate mongoTemplate;
+    private final SeatLedgerService seatLedgerService;
+    private final Duration holdTtl;
+    private final int maxHoldsPerStudent;
+
+    private final LongAdder holds = new LongAdder();
+    private final LongAdder holdsRefused = new LongAdder();
+    private final LongAdder conversions = new LongAdder();
+    private final LongAdder releases = new LongAdder();
+
+    public SlotHoldService(MongoTemplate mongoTemplate,
+                           SeatLedgerService seatLedgerService,
+                           @Value("${app.requests.hold-ttl-seconds:300}") long holdTtlSeconds,
+                           @Value("${app.requests.max-holds-per-student:3}") int maxHoldsPerStudent) {
+        this.mongoTemplate = mongoTemplate;
+        this.seatLedgerService = seatLedgerService;
+        this.holdTtl = Duration.ofSeconds(holdTtlSeconds);
+        this.maxHoldsPerStudent = maxHoldsPerStudent;
+    }
+
+    /**
+     * Takes or renews the student's hold on the session. Throws SlotUnavailableException when
+     * every seat is taken or held by someone else, or the student already holds too many slots.
+     */
+    public SlotHold hold(String studentId, SlotHoldDto session) {
+        LocalDate date = LocalDate.parse(session.getDate(), DateTimeFormatter.ISO_DATE);
+        if (date.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Cannot hold a slot in the past");
+        }
+        Instant now = Instant.now();
+
+        Query others = Query.query(Criteria.where("studentId").is(studentId).and("expiresAt").gt(now));
+        others.fields().include("moduleCode", "date", "timeSlot");
+        long otherHolds = mongoTemplate.find(others, SlotHold.class).stream()
+                .filter(hold -> !sameSession(hold, session.getModuleCode(), session.getDate(), session.getTimeSlot()))
+                .count();
+        if (otherHolds >= maxHoldsPerStudent) {
+            holdsRefused.increment();
+            throw new SlotUnavailableException("You can hold at most " + maxHoldsPerStudent + " slots at a time");
+        }
+
+        Instant expiresAt = now.plus(holdTtl);
+        if (!seatLedgerService.hold(session.getModuleCode(), session.getDate(), session.getTimeSlot(), studentId, expiresAt)) {
+            holdsRefused.increment();
+            throw new SlotUnavailableException("No seats are left in this session");
+        }
+
+        // The seat is held on the ledger; this document is the student's handle on it.
+        Query query = Query.query(Criteria.where("studentId").is(studentId)
+                .and("moduleCode").is(session.getModuleCode())
+                .and("date").is(session.getDate())
+                .and("timeSlot").is(session.getTimeSlot()));
+        Update update = new Update()
+                .set("expiresAt", expiresAt)
+                .setOnInsert("createdAt", now);
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        SlotHold hold;
+        try {
+            try {
+                hold = mongoTemplate.findAndModify(query, update, options, SlotHold.class);
+            } catch (DuplicateKeyException e) {
+                // A concurrent request from the same student inserted the hold first.
+                hold = mongoTemplate.findAndModify(query, update, options.upsert(false), SlotHold.class);
+            }
+        } catch (RuntimeException e) {
+            seatLedgerService.releaseHold(session.getModuleCode(), session.getDate(), session.getTimeSlot(), studentId);
+            throw e;
+        }
+        holds.increment();
+        return hold;
+    }
+
+    /**
+     * Removes the student's live hold matching the request's session and returns it, or null when
+     * there is none. The removal is a single findAndRemove, so a hold converts at most once.
+     */
+    public SlotHold consume(String holdId, String studentId, RescheduleRequest request) {
+        SlotHold hold = mongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(holdId)
+                .and("studentId").is(studentId)
+                .and("moduleCode").is(request.getModuleCode())
+                .and("date").is(request.getRequestedDate())
+                .and("timeSlot").is(request.getRequestedTimeSlot())
+                .and("expiresAt").gt(Instant.now())), SlotHold.class);
+        if (hold != null) {
+            conversions.increment();
+        }
+        return hold;
+    }
+
+    /**
+     * Puts back a consumed hold when the request it was converted into could not be saved, if its
+     * seat is still free.
+     */
+    public void restore(SlotHold hold) {
+        if (!seatLedgerService.hold(hold.getModuleCode(), hold.getDate(), hold.getTimeSlot(),
+                hold.getStudentId(), hold.getExpiresAt())) {
+            return;
+        }
+        try {
+            mongoTemplate.insert(hold);
+            conversions.decrement();
+        } catch (DuplicateKeyException e) {
+            // The student has taken a new hold on the session meanwhile.
+        }
+    }
+
+    public boolean release(String holdId, String studentId) {
+        SlotHold hold = mongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(holdId)
+                .and("studentId").is(studentId)), SlotHold.class);
+        if (hold == null) {
+            return false;
+        }
+        seatLedgerService.releaseHold(hold.getModuleCode(), hold.getDate(), hold.getTimeSlot(), studentId);
+        releases.increment();
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("holdTtlSeconds", holdTtl.getSeconds());
+        stats.put("holds", holds.sum());
+        stats.put("holdsRefused", holdsRefused.sum());
+        stats.put("conversions", conversions.sum());
+        stats.put("releases", releases.sum());
+        return stats;
+    }
+
+    private static boolean sameSession(SlotHold hold, String moduleCode, String date, String timeSlot) {
+        return moduleCode.equals(hold.getModuleCode()) && date.equals(hold.getDate()) && timeSlot.equals(hold.getTimeSlot());
+    }
+}
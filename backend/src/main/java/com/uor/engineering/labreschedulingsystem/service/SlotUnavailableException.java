@@ -0,0 +1,7 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+public class SlotUnavailableException extends RuntimeException {
+    public SlotUnavailableException(String message) {
+        super(message);
+    }
+}
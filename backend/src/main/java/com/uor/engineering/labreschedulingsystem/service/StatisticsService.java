@@ -0,0 +1,115 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.uor.engineering.labreschedulingsystem.dto.StatusStatsDto;
+import com.uor.engineering.labreschedulingsystem.model.Appeal;
+import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Status counts for dashboards, computed with a single $group aggregation and cached briefly
+ * so repeated dashboard loads do not re-run it.
+ */
+@Service
+public class StatisticsService {
+
+    private final MongoTemplate mongoTemplate;
+    private static final int MAX_CACHED_ENTRIES = 1000;
+
+    private final long cacheTtlMs;
+    private final Map<String, CachedStats> cache = new ConcurrentHashMap<>();
+
+    public StatisticsService(MongoTemplate mongoTemplate,
+                             @Value("${app.stats.cache-ttl-ms:30000}") long cacheTtlMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.cacheTtlMs = cacheTtlMs;
+    }
+
+    public StatusStatsDto getRequestStats(String studentId, boolean byModule, boolean byWeek) {
+        String key = "requests:" + studentId + ":" + byModule + ":" + byWeek;
+        return cached(key, () -> aggregate(RescheduleRequest.class, studentId, byModule, byWeek));
+    }
+
+    public StatusStatsDto getAppealStats(String studentId, boolean byWeek) {
+        String key = "appeals:" + studentId + ":" + byWeek;
+        return cached(key, () -> aggregate(Appeal.class, studentId, false, byWeek));
+    }
+
+    private StatusStatsDto cached(String key, Supplier<StatusStatsDto> loader) {
+        long now = System.currentTimeMillis();
+        CachedStats entry = cache.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.stats();
+        }
+        StatusStatsDto stats = loader.get();
+        if (cache.size() >= MAX_CACHED_ENTRIES) {
+            cache.values().removeIf(cachedStats -> cachedStats.expiresAt() <= now);
+        }
+        cache.put(key, new CachedStats(stats, now + cacheTtlMs));
+        return stats;
+    }
+
+    private StatusStatsDto aggregate(Class<?> documentType, String studentId, boolean byModule, boolean byWeek) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        if (studentId != null) {
+            stages.add(Aggregation.match(Criteria.where("studentId").is(studentId)));
+        }
+
+        List<String> groupFields = new ArrayList<>(List.of("status"));
+        if (byModule) {
+            groupFields.add("moduleCode");
+        }
+        if (byWeek) {
+            ProjectionOperation project = Aggregation.project(byModule ? new String[]{"status", "moduleCode"} : new String[]{"status"})
+                    .and(DateOperators.IsoWeekYear.isoWeekYearOf("createdAt")).as("year")
+                    .and(DateOperators.IsoWeek.isoWeekOf("createdAt")).as("week");
+            stages.add(project);
+            groupFields.add("year");
+            groupFields.add("week");
+        }
+        stages.add(Aggregation.group(groupFields.toArray(new String[0])).count().as("count"));
+
+        List<Document> results = mongoTemplate.aggregate(
+                Aggregation.newAggregation(documentType, stages), documentType, Document.class).getMappedResults();
+
+        long total = 0;
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        List<StatusStatsDto.StatusBucket> buckets = new ArrayList<>();
+        for (Document result : results) {
+            // A single group key is unwrapped into _id; multiple keys come back as top-level fields.
+            Object id = result.get("_id");
+            Document key = id instanceof Document document ? document : result;
+            String status = groupFields.size() == 1 ? String.valueOf(id) : key.getString("status");
+            long count = ((Number) result.get("count")).longValue();
+
+            total += count;
+            byStatus.merge(status, count, Long::sum);
+            if (byModule || byWeek) {
+                String week = byWeek && key.get("year") != null
+                        ? String.format("%d-W%02d", ((Number) key.get("year")).intValue(), ((Number) key.get("week")).intValue())
+                        : null;
+                buckets.add(new StatusStatsDto.StatusBucket(status, byModule ? key.getString("moduleCode") : null, week, count));
+            }
+        }
+
+        return new StatusStatsDto(total, byStatus, buckets, LocalDateTime.now());
+    }
+
+    private record CachedStats(StatusStatsDto stats, long expiresAt) {
+    }
+}
@@ -0,0 +1,291 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.uor.engineering.labreschedulingsystem.config.MongoTopology;
+import com.uor.engineering.labreschedulingsystem.dto.StatusChangeEvent;
+import com.uor.engineering.labreschedulingsystem.model.Appeal;
+import com.uor.engineering.labreschedulingsystem.model.RequestStatus;
+import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
+import com.uor.engineering.labreschedulingsystem.security.UserPrincipal;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.MessageListener;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes request and appeal status changes to connected clients over Server-Sent Events.
+ * On a replica set the events come from a MongoDB change stream, so writes made by any
+ * instance reach every subscriber. On a standalone server change streams are unavailable
+ * and the write paths publish their own changes in-process instead.
+ *
+ * <p>Sends run on a single dispatch thread, in publish order, so a slow client never holds up
+ * the writer's request thread. Events are dropped while the dispatch queue is full.
+ */
+@Service
+public class StatusEventService {
+    private static final Logger logger = LoggerFactory.getLogger(StatusEventService.class);
+
+    private static final String REQUESTS_COLLECTION = "reschedule_requests";
+    private static final String APPEALS_COLLECTION = "appeals";
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoTopology mongoTopology;
+    private final String source;
+    private final long emitterTimeoutMs;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ThreadPoolExecutor dispatcher;
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean changeStreamActive;
+    private MessageListenerContainer container;
+
+    public StatusEventService(MongoTemplate mongoTemplate,
+                              MongoTopology mongoTopology,
+                              @Value("${app.events.source:auto}") String source,
+                              @Value("${app.events.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                              @Value("${app.events.dispatch-queue-capacity:1000}") int dispatchQueueCapacity) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoTopology = mongoTopology;
+        this.source = source;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.dispatcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(dispatchQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "status-event-dispatch");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if ("local".equalsIgnoreCase(source)) {
+            logger.info("Status events published in-process");
+            return;
+        }
+        if (!mongoTopology.isReplicaSet()) {
+            if ("change-stream".equalsIgnoreCase(source)) {
+                throw new IllegalStateException("app.events.source is change-stream but MongoDB is not a replica set");
+            }
+            logger.info("MongoDB is standalone; status events published in-process");
+            return;
+        }
+
+        container = new DefaultMessageListenerContainer(mongoTemplate);
+        container.register(changeStreamRequest(REQUESTS_COLLECTION), Document.class);
+        container.register(changeStreamRequest(APPEALS_COLLECTION), Document.class);
+        container.start();
+        changeStreamActive = true;
+        logger.info("Status events driven by MongoDB change streams");
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    public SseEmitter subscribe(UserPrincipal principal) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Set<String> authorities = principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        Subscriber subscriber = new Subscriber(emitter, principal.getId(), authorities.contains("ROLE_ADMIN"),
+                authorities.contains("ROLE_STUDENT"), RequestTransitionService.queueStatuses(authorities));
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        try {
+            emitter.send(SseEmitter.event().name("ready").data(changeStreamActive ? "change-stream" : "local"));
+        } catch (IOException e) {
+            subscribers.remove(subscriber);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    public void requestChanged(RescheduleRequest request) {
+        publishLocal(new StatusChangeEvent(StatusChangeEvent.REQUEST, request.getId(), request.getStudentId(),
+                request.getModuleCode(), String.valueOf(request.getStatus()), request.getUpdatedAt()));
+    }
+
+    public void appealChanged(Appeal appeal) {
+        publishLocal(new StatusChangeEvent(StatusChangeEvent.APPEAL, appeal.getId(), appeal.getStudentId(),
+                null, String.valueOf(appeal.getStatus()), appeal.getUpdatedAt()));
+    }
+
+    /**
+     * Whether write paths need to report changes themselves. With a change stream running the
+     * stream already delivers them, and publishing again would send duplicates.
+     */
+    public boolean isLocalPublishing() {
+        return !changeStreamActive;
+    }
+
+    /**
+     * Keeps idle connections open through proxies and drops clients that have gone away.
+     */
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        dispatch(() -> {
+            for (Subscriber subscriber : subscribers) {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    subscribers.remove(subscriber);
+                }
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("source", changeStreamActive ? "change-stream" : "local");
+        stats.put("subscribers", subscribers.size());
+        stats.put("published", published.sum());
+        stats.put("delivered", delivered.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("queued", dispatcher.getQueue().size());
+        return stats;
+    }
+
+    private void publishLocal(StatusChangeEvent event) {
+        if (!changeStreamActive) {
+            publish(event);
+        }
+    }
+
+    private void publish(StatusChangeEvent event) {
+        published.increment();
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        boolean queued = dispatch(() -> {
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.canSee(event)) {
+                    continue;
+                }
+                try {
+                    subscriber.emitter.send(SseEmitter.event().name(event.getType()).id(event.getId()).data(event));
+                    delivered.increment();
+                } catch (IOException | IllegalStateException e) {
+                    subscribers.remove(subscriber);
+                }
+            }
+        });
+        if (!queued) {
+            dropped.increment();
+        }
+    }
+
+    private boolean dispatch(Runnable task) {
+        try {
+            dispatcher.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private ChangeStreamRequest<Document> changeStreamRequest(String collection) {
+        // Only inserts, replacements (repository save) and updates that touch the status field.
+        Criteria statusChanges = new Criteria().orOperator(
+                Criteria.where("operationType").in("insert", "replace"),
+                Criteria.where("operationType").is("update").and("updateDescription.updatedFields.status").exists(true));
+
+        MessageListener<ChangeStreamDocument<Document>, Document> listener = message -> {
+            Document document = message.getBody();
+            if (document != null) {
+                publish(toEvent(collection, document));
+            }
+        };
+        return ChangeStreamRequest.builder(listener)
+                .collection(collection)
+                .filter(Aggregation.newAggregation(Aggregation.match(statusChanges)))
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                .build();
+    }
+
+    private static StatusChangeEvent toEvent(String collection, Document document) {
+        Date updatedAt = document.getDate("updatedAt");
+        return new StatusChangeEvent(
+                REQUESTS_COLLECTION.equals(collection) ? StatusChangeEvent.REQUEST : StatusChangeEvent.APPEAL,
+                String.valueOf(document.get("_id")),
+                document.getString("studentId"),
+                document.getString("moduleCode"),
+                document.getString("status"),
+                updatedAt == null ? null : LocalDateTime.ofInstant(updatedAt.toInstant(), ZoneId.systemDefault()));
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final String userId;
+        private final boolean admin;
+        private final boolean student;
+        private final Set<RequestStatus> queueStatuses;
+
+        private Subscriber(SseEmitter emitter, String userId, boolean admin, boolean student,
+                           Set<RequestStatus> queueStatuses) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.admin = admin;
+            this.student = student;
+            this.queueStatuses = queueStatuses;
+        }
+
+        /**
+         * Students see their own requests and appeals; reviewers see requests entering or
+         * leaving their queue. Appeals are handled by admins only.
+         */
+        private boolean canSee(StatusChangeEvent event) {
+            if (admin) {
+                return true;
+            }
+            if (student && userId.equals(event.getStudentId())) {
+                return true;
+            }
+            return StatusChangeEvent.REQUEST.equals(event.getType())
+                    && queueStatuses.stream().anyMatch(status -> status.name().equals(event.getStatus()));
+        }
+    }
+}
@@ -7,29 +7,37 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class TeachingAssistantService {
 
     private final TeachingAssistantRepository teachingAssistantRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final ReferenceDataCache referenceDataCache;
 
     @Autowired
-    public TeachingAssistantService(TeachingAssistantRepository teachingAssistantRepository) {
+    public TeachingAssistantService(TeachingAssistantRepository teachingAssistantRepository,
+                                    AvailabilityIndex availabilityIndex,
+                                    ReferenceDataCache referenceDataCache) {
         this.teachingAssistantRepository = teachingAssistantRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.referenceDataCache = referenceDataCache;
     }
 
     public List<TeachingAssistant> getAllTeachingAssistants() {
-        return teachingAssistantRepository.findAll();
+        return referenceDataCache.teachingAssistants();
     }
 
     public TeachingAssistant createTeachingAssistant(TeachingAssistant teachingAssistant) {
-        return teachingAssistantRepository.save(teachingAssistant);
+        return index(teachingAssistantRepository.save(teachingAssistant));
     }
 
     public Optional<TeachingAssistant> getTeachingAssistantById(String id) {
-        return teachingAssistantRepository.findById(id);
+        return referenceDataCache.teachingAssistant(id);
     }
 
     public TeachingAssistant updateTeachingAssistant(String id, TeachingAssistant teachingAssistantDetails) {
@@ -38,17 +46,29 @@ public class TeachingAssistantService {
         teachingAssistant.setEmail(teachingAssistantDetails.getEmail());
         teachingAssistant.setUnavailableDates(teachingAssistantDetails.getUnavailableDates());
         teachingAssistant.setUnavailableTimeSlots(teachingAssistantDetails.getUnavailableTimeSlots());
-        return teachingAssistantRepository.save(teachingAssistant);
+        return index(teachingAssistantRepository.save(teachingAssistant));
     }
 
     public void deleteTeachingAssistant(String id) {
         teachingAssistantRepository.deleteById(id);
+        referenceDataCache.invalidate(ReferenceDataCache.TEACHING_ASSISTANTS);
+        availabilityIndex.remove(AvailabilityIndex.ResourceKind.TEACHING_ASSISTANT, id);
     }
 
     public List<TeachingAssistant> getAvailableTeachingAssistants(String date, String timeSlot) {
         LocalDate localDate = LocalDate.parse(date, DateTimeFormatter.ISO_DATE);
-        return teachingAssistantRepository.findByUnavailableDatesNotContaining(localDate).stream()
-                .filter(ta -> !ta.getUnavailableTimeSlots().contains(timeSlot))
-                .toList();
+        if (availabilityIndex.isReady()) {
+            Set<String> ids = new HashSet<>(
+                    availabilityIndex.availableIds(AvailabilityIndex.ResourceKind.TEACHING_ASSISTANT, localDate, timeSlot));
+            return referenceDataCache.teachingAssistants().stream().filter(resource -> ids.contains(resource.getId())).toList();
+        }
+        return teachingAssistantRepository.findByUnavailableDatesNotContainingAndUnavailableTimeSlotsNotContaining(localDate, timeSlot);
+    }
+
+    private TeachingAssistant index(TeachingAssistant saved) {
+        referenceDataCache.invalidate(ReferenceDataCache.TEACHING_ASSISTANTS);
+        availabilityIndex.put(AvailabilityIndex.ResourceKind.TEACHING_ASSISTANT, saved.getId(),
+                saved.getUnavailableDates(), saved.getUnavailableTimeSlots());
+        return saved;
     }
 }
\ No newline at end of file
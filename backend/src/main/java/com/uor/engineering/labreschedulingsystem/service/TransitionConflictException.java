@@ -0,0 +1,16 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.uor.engineering.labreschedulingsystem.model.RequestStatus;
+
+public class TransitionConflictException extends RuntimeException {
+    private final RequestStatus currentStatus;
+
+    public TransitionConflictException(String message, RequestStatus currentStatus) {
+        super(message);
+        this.currentStatus = currentStatus;
+    }
+
+    public RequestStatus getCurrentStatus() {
+        return currentStatus;
+    }
+}
@@ -0,0 +1,304 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.uor.engineering.labreschedulingsystem.dto.SignupRequest;
+import com.uor.engineering.labreschedulingsystem.model.Role;
+import com.uor.engineering.labreschedulingsystem.model.User;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.BsonDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Imports users in bulk from a CSV or JSON array stream. Rows are read incrementally,
+ * passwords are hashed in parallel and each batch is written with a single unordered insert;
+ * duplicates are reported from the unique indexes on username and email.
+ */
+@Service
+public class UserImportService {
+
+    private static final String DUPLICATE_KEY_ERROR = "E11000";
+    private static final int DUPLICATE_KEY_CODE = 11000;
+    private static final Pattern DUPLICATE_KEY_INDEX = Pattern.compile("index: (\\S+) dup key");
+
+    private final MongoTemplate mongoTemplate;
+    private final PasswordEncoder encoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public UserImportService(MongoTemplate mongoTemplate,
+                             PasswordEncoder encoder,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             @Value("${app.users.import-batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.encoder = encoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    public static User newUser(SignupRequest signUpRequest, String encodedPassword) {
+        User user = new User(signUpRequest.getUsername(),
+                signUpRequest.getEmail(),
+                encodedPassword,
+                signUpRequest.getFirstName(),
+                signUpRequest.getLastName());
+
+        user.setStudentId(signUpRequest.getStudentId());
+        user.setDepartment(signUpRequest.getDepartment());
+        user.setSemester(signUpRequest.getSemester());
+        user.setRoles(resolveRoles(signUpRequest.getRole()));
+        return user;
+    }
+
+    public static Set<Role> resolveRoles(Set<String> strRoles) {
+        Set<Role> roles = new HashSet<>();
+
+        if (strRoles == null || strRoles.isEmpty()) {
+            roles.add(Role.ROLE_STUDENT);
+        } else {
+            strRoles.forEach(role -> {
+                switch (role) {
+                    case "admin":
+                        roles.add(Role.ROLE_ADMIN);
+                        break;
+                    case "lab_coordinator":
+                        roles.add(Role.ROLE_LAB_COORDINATOR);
+                        break;
+                    case "module_coordinator":
+                        roles.add(Role.ROLE_MODULE_COORDINATOR);
+                        break;
+                    case "lab_advisor":
+                        roles.add(Role.ROLE_LAB_ADVISOR);
+                        break;
+                    default:
+                        roles.add(Role.ROLE_STUDENT);
+                }
+            });
+        }
+        return roles;
+    }
+
+    public void importCsv(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+        List<String> header = parseCsvLine(headerLine).stream()
+                .map(String::trim)
+                .collect(Collectors.toList());
+
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        int rowNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            batch.add(new ImportRow(rowNumber, toSignupRequest(header, parseCsvLine(line))));
+            if (batch.size() == batchSize) {
+                processBatch(batch, out);
+                batch.clear();
+            }
+        }
+        processBatch(batch, out);
+    }
+
+    public void importJson(InputStream in, OutputStream out) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of signup requests");
+            }
+
+            List<ImportRow> batch = new ArrayList<>(batchSize);
+            int rowNumber = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                rowNumber++;
+                batch.add(new ImportRow(rowNumber, objectMapper.readValue(parser, SignupRequest.class)));
+                if (batch.size() == batchSize) {
+                    processBatch(batch, out);
+                    batch.clear();
+                }
+            }
+            processBatch(batch, out);
+        }
+    }
+
+    private void processBatch(List<ImportRow> batch, OutputStream out) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        batch.parallelStream().forEach(row -> {
+            Set<ConstraintViolation<SignupRequest>> violations = validator.validate(row.request);
+            if (!violations.isEmpty()) {
+                row.error = violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                return;
+            }
+            row.user = newUser(row.request, encoder.encode(row.request.getPassword()));
+        });
+
+        List<ImportRow> insertable = batch.stream()
+                .filter(row -> row.user != null)
+                .collect(Collectors.toList());
+
+        if (!insertable.isEmpty()) {
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+            bulkOps.insert(insertable.stream().map(row -> row.user).collect(Collectors.toList()));
+            try {
+                bulkOps.execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError error : e.getErrors()) {
+                    insertable.get(error.getIndex()).error = describe(error);
+                }
+            }
+        }
+
+        for (ImportRow row : batch) {
+            writeResult(row, out);
+        }
+        out.flush();
+    }
+
+    private void writeResult(ImportRow row, OutputStream out) throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("row", row.rowNumber);
+        result.put("username", row.request.getUsername());
+        result.put("success", row.error == null);
+        if (row.error != null) {
+            result.put("message", "Error: " + row.error);
+        }
+        out.write(objectMapper.writeValueAsBytes(result));
+        out.write('\n');
+    }
+
+    private static String describe(BulkWriteError error) {
+        String message = error.getMessage();
+        if (error.getCode() == DUPLICATE_KEY_CODE || (message != null && message.contains(DUPLICATE_KEY_ERROR))) {
+            if ("email".equals(duplicateKeyField(error))) {
+                return "Email is already in use!";
+            }
+            return "Username is already taken!";
+        }
+        return message;
+    }
+
+    /**
+     * The field of the unique index a duplicate key error tripped, taken from the error's key
+     * pattern when the server reports one and otherwise from the index name in the message. The
+     * rest of the message quotes the duplicate value, so it is never searched.
+     */
+    private static String duplicateKeyField(BulkWriteError error) {
+        BsonDocument keyPattern = error.getDetails() != null ? error.getDetails().getDocument("keyPattern", null) : null;
+        if (keyPattern != null && !keyPattern.isEmpty()) {
+            return keyPattern.getFirstKey();
+        }
+        Matcher index = DUPLICATE_KEY_INDEX.matcher(error.getMessage() != null ? error.getMessage() : "");
+        // Spring Data names a single-field index after the field; the shell default adds "_1".
+        return index.find() ? index.group(1).replaceFirst("_-?1$", "") : null;
+    }
+
+    private static SignupRequest toSignupRequest(List<String> header, List<String> values) {
+        SignupRequest request = new SignupRequest();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            String value = values.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (header.get(i)) {
+                case "username" -> request.setUsername(value);
+                case "email" -> request.setEmail(value);
+                case "password" -> request.setPassword(value);
+                case "firstName" -> request.setFirstName(value);
+                case "lastName" -> request.setLastName(value);
+                case "studentId" -> request.setStudentId(value);
+                case "department" -> request.setDepartment(value);
+                case "semester" -> request.setSemester(parseSemester(value));
+                case "role" -> request.setRole(new HashSet<>(Arrays.asList(value.split(";"))));
+                default -> {
+                }
+            }
+        }
+        return request;
+    }
+
+    private static int parseSemester(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static class ImportRow {
+        private final int rowNumber;
+        private final SignupRequest request;
+        private User user;
+        private String error;
+
+        private ImportRow(int rowNumber, SignupRequest request) {
+            this.rowNumber = rowNumber;
+            this.request = request;
+        }
+    }
+}
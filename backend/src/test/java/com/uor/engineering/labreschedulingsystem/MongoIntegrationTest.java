@@ -0,0 +1,23 @@
+package com.uor.engineering.labreschedulingsystem;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+
+/**
+ * Base for tests that need a real mongod. One container, a single-node replica set, is shared
+ * by every test class in the run and removed by Testcontainers when the JVM exits.
+ */
+public abstract class MongoIntegrationTest {
+
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    static {
+        MONGO.start();
+    }
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> MONGO.getReplicaSetUrl("lab_rescheduling_test"));
+    }
+}
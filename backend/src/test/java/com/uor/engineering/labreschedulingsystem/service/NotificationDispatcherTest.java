@@ -0,0 +1,161 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.uor.engineering.labreschedulingsystem.MongoIntegrationTest;
+import com.uor.engineering.labreschedulingsystem.model.NotificationEvent;
+import com.uor.engineering.labreschedulingsystem.model.NotificationStatus;
+import com.uor.engineering.labreschedulingsystem.model.NotificationType;
+import com.uor.engineering.labreschedulingsystem.model.User;
+import com.uor.engineering.labreschedulingsystem.repository.UserRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the dispatcher against GreenMail as the SMTP server. Scheduled runs are pushed out of
+ * the way, so each test drives dispatch() itself.
+ */
+@SpringBootTest(properties = {
+        "app.notifications.enabled=true",
+        "app.notifications.dispatch-interval-ms=3600000",
+        "app.notifications.backoff-base-ms=30000",
+        "app.notifications.max-attempts=3",
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025"
+})
+class NotificationDispatcherTest extends MongoIntegrationTest {
+
+    private static final String USERNAME_PREFIX = "dispatcher-test-";
+    private static final long BACKOFF_BASE_MS = 30_000;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private NotificationDispatcher dispatcher;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void clearOutbox() {
+        mongoTemplate.remove(new Query(), NotificationEvent.class);
+        mongoTemplate.remove(Query.query(Criteria.where("username").regex("^" + USERNAME_PREFIX)), User.class);
+    }
+
+    @Test
+    void coalescesEventsForOneRecipientIntoOneDigest() throws MessagingException {
+        User alice = user("alice");
+        User bob = user("bob");
+        mongoTemplate.insert(List.of(
+                event(alice, "Request one was approved."),
+                event(alice, "Request two was rejected."),
+                event(alice, "Appeal three was approved."),
+                event(bob, "Request four was approved.")), NotificationEvent.class);
+
+        dispatcher.dispatch();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        MimeMessage toAlice = received[recipient(received[0]).equals(alice.getEmail()) ? 0 : 1];
+        MimeMessage toBob = received[recipient(received[0]).equals(alice.getEmail()) ? 1 : 0];
+        assertThat(toAlice.getSubject()).isEqualTo("3 lab rescheduling updates");
+        assertThat(GreenMailUtil.getBody(toAlice))
+                .contains("Request one was approved.", "Request two was rejected.", "Appeal three was approved.");
+        assertThat(toBob.getSubject()).isEqualTo("Lab rescheduling update");
+        assertThat(events()).extracting(NotificationEvent::getStatus).containsOnly(NotificationStatus.SENT);
+    }
+
+    @Test
+    void retriesWithExponentialBackoffWhileSmtpIsDown() {
+        mongoTemplate.insert(event(user("carol"), "Request five was approved."));
+        greenMail.stop();
+
+        Instant firstRun = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        dispatcher.dispatch();
+        NotificationEvent afterFirst = onlyEvent();
+        assertThat(afterFirst.getStatus()).isEqualTo(NotificationStatus.PENDING);
+        assertThat(afterFirst.getAttempts()).isEqualTo(1);
+        assertThat(afterFirst.getLastError()).isNotBlank();
+        assertThat(afterFirst.getNextAttemptAt())
+                .isBetween(firstRun.plusMillis(BACKOFF_BASE_MS), Instant.now().plusMillis(BACKOFF_BASE_MS));
+
+        makeDue();
+        Instant secondRun = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        dispatcher.dispatch();
+        NotificationEvent afterSecond = onlyEvent();
+        assertThat(afterSecond.getAttempts()).isEqualTo(2);
+        assertThat(afterSecond.getNextAttemptAt())
+                .isBetween(secondRun.plusMillis(2 * BACKOFF_BASE_MS), Instant.now().plusMillis(2 * BACKOFF_BASE_MS));
+
+        greenMail.start();
+        makeDue();
+        dispatcher.dispatch();
+        assertThat(onlyEvent().getStatus()).isEqualTo(NotificationStatus.SENT);
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    }
+
+    @Test
+    void marksEventFailedAfterMaxAttempts() {
+        NotificationEvent event = event(user("dave"), "Request six was rejected.");
+        event.setAttempts(2);
+        mongoTemplate.insert(event);
+        greenMail.stop();
+
+        dispatcher.dispatch();
+
+        NotificationEvent failed = onlyEvent();
+        assertThat(failed.getStatus()).isEqualTo(NotificationStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(3);
+        assertThat(failed.getExpiresAt()).isNotNull();
+    }
+
+    private User user(String name) {
+        return userRepository.save(new User(USERNAME_PREFIX + name, name + "@example.test", "unused", name, "Test"));
+    }
+
+    private static NotificationEvent event(User recipient, String message) {
+        return new NotificationEvent(recipient.getId(), NotificationType.REQUEST_APPROVED, "subject", message);
+    }
+
+    private List<NotificationEvent> events() {
+        return mongoTemplate.findAll(NotificationEvent.class);
+    }
+
+    private NotificationEvent onlyEvent() {
+        List<NotificationEvent> events = events();
+        assertThat(events).hasSize(1);
+        return events.get(0);
+    }
+
+    private void makeDue() {
+        mongoTemplate.updateMulti(new Query(), new Update().set("nextAttemptAt", Instant.now()), NotificationEvent.class);
+    }
+
+    private static String recipient(MimeMessage message) {
+        try {
+            return message.getAllRecipients()[0].toString();
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.uor.engineering.labreschedulingsystem.model.LabRoom;
+import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Times RoomAssignmentService.plan over weeks of increasing size and logs min, median, p95 and
+ * max after a warm-up. It reports numbers rather than enforcing a bound, so it is excluded from
+ * the default build; run it with {@code mvn test -Pperformance}.
+ */
+@Tag("performance")
+class RoomAssignmentBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(RoomAssignmentBenchmarkTest.class);
+
+    private static final int WARMUP_RUNS = 20;
+    private static final int MEASURED_RUNS = 50;
+
+    @ParameterizedTest(name = "{0} requests, {1} rooms, {2} modules")
+    @CsvSource({"1000, 24, 30", "5000, 48, 60", "20000, 96, 120"})
+    void planWeek(int requestCount, int roomCount, int moduleCount) {
+        Random random = new Random(42);
+        Map<String, Set<String>> requiredEquipment = RoomAssignmentFixtures.modules(random, moduleCount);
+        List<LabRoom> rooms = RoomAssignmentFixtures.rooms(random, roomCount);
+        List<RescheduleRequest> requests = RoomAssignmentFixtures.requests(random, requiredEquipment.keySet(), requestCount);
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            RoomAssignmentService.plan(requests, rooms, requiredEquipment);
+        }
+
+        long[] nanos = new long[MEASURED_RUNS];
+        int placed = 0;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long started = System.nanoTime();
+            placed = RoomAssignmentService.plan(requests, rooms, requiredEquipment).roomByRequest.size();
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+
+        logger.info("plan: {} requests, {} rooms, {} modules, {} placed: min {} ms, median {} ms, p95 {} ms, max {} ms",
+                requestCount, roomCount, moduleCount, placed,
+                millis(nanos[0]), millis(nanos[MEASURED_RUNS / 2]),
+                millis(nanos[(int) Math.ceil(MEASURED_RUNS * 0.95) - 1]), millis(nanos[MEASURED_RUNS - 1]));
+        assertThat(placed).isPositive();
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
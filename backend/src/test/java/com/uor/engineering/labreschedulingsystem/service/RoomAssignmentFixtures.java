@@ -0,0 +1,89 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.uor.engineering.labreschedulingsystem.model.LabRoom;
+import com.uor.engineering.labreschedulingsystem.model.RequestStatus;
+import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Synthetic weeks for the room planner: approved requests spread over five days and four slots,
+ * rooms with random capacity, equipment and blocked dates or slots. Callers pass a seeded Random
+ * so a failure reproduces.
+ */
+final class RoomAssignmentFixtures {
+    static final LocalDate WEEK_START = LocalDate.of(2025, 3, 3);
+    static final List<String> SLOTS = List.of("08:00-10:00", "10:00-12:00", "13:00-15:00", "15:00-17:00");
+    static final List<String> EQUIPMENT = List.of("PC", "Oscilloscope", "Projector", "FPGA Board", "3D Printer");
+
+    private RoomAssignmentFixtures() {
+    }
+
+    /**
+     * Module code to required equipment, as RoomAssignmentService.assignWeek builds it.
+     */
+    static Map<String, Set<String>> modules(Random random, int count) {
+        Map<String, Set<String>> requiredEquipment = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            List<String> required = new ArrayList<>();
+            for (int j = random.nextInt(3); j > 0; j--) {
+                required.add(EQUIPMENT.get(random.nextInt(EQUIPMENT.size())));
+            }
+            requiredEquipment.put(String.format("EE%04d", 1000 + i), RoomAssignmentService.equipmentSet(required));
+        }
+        return requiredEquipment;
+    }
+
+    static List<LabRoom> rooms(Random random, int count) {
+        List<LabRoom> rooms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LabRoom room = new LabRoom();
+            room.setId("room-" + i);
+            room.setRoomNumber("L" + (100 + i));
+            room.setCapacity(10 + random.nextInt(51));
+            List<String> equipment = new ArrayList<>();
+            for (String item : EQUIPMENT) {
+                if (random.nextInt(3) > 0) {
+                    equipment.add(item);
+                }
+            }
+            room.setEquipment(String.join(", ", equipment));
+            List<LocalDate> blockedDates = new ArrayList<>();
+            if (random.nextInt(8) == 0) {
+                blockedDates.add(WEEK_START.plusDays(random.nextInt(5)));
+            }
+            room.setUnavailableDates(blockedDates);
+            List<String> blockedSlots = new ArrayList<>();
+            if (random.nextInt(8) == 0) {
+                blockedSlots.add(SLOTS.get(random.nextInt(SLOTS.size())));
+            }
+            room.setUnavailableTimeSlots(blockedSlots);
+            rooms.add(room);
+        }
+        return rooms;
+    }
+
+    static List<RescheduleRequest> requests(Random random, Set<String> moduleCodes, int count) {
+        List<String> modules = new ArrayList<>(moduleCodes);
+        LocalDateTime created = LocalDateTime.of(2025, 2, 1, 9, 0);
+        List<RescheduleRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            RescheduleRequest request = new RescheduleRequest();
+            request.setId("request-" + i);
+            request.setStatus(RequestStatus.APPROVED);
+            request.setModuleCode(modules.get(random.nextInt(modules.size())));
+            request.setRequestedDate(WEEK_START.plusDays(random.nextInt(5)).toString());
+            request.setRequestedTimeSlot(SLOTS.get(random.nextInt(SLOTS.size())));
+            request.setCreatedAt(created.plusMinutes(random.nextInt(40_000)));
+            requests.add(request);
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,65 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.uor.engineering.labreschedulingsystem.dto.RoomAssignmentPlanDto;
+import com.uor.engineering.labreschedulingsystem.model.LabRoom;
+import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the packing step on its own against a week of synthetic approved requests and a
+ * department's worth of rooms. Timings are in {@link RoomAssignmentBenchmarkTest}.
+ */
+class RoomAssignmentServiceTest {
+
+    @Test
+    void neverExceedsCapacityOrMissesEquipment() {
+        Random random = new Random(7);
+        Map<String, Set<String>> requiredEquipment = RoomAssignmentFixtures.modules(random, 60);
+        List<LabRoom> rooms = RoomAssignmentFixtures.rooms(random, 48);
+        List<RescheduleRequest> requests = RoomAssignmentFixtures.requests(random, requiredEquipment.keySet(), 5000);
+
+        RoomAssignmentService.Plan plan = RoomAssignmentService.plan(requests, rooms, requiredEquipment);
+        assertThat(plan.roomByRequest).isNotEmpty();
+
+        // Each room hosts at most one group per slot, and that group fits in it.
+        Map<String, Integer> seatedByRoomSlot = new HashMap<>();
+        for (RescheduleRequest request : requests) {
+            LabRoom room = plan.roomByRequest.get(request.getId());
+            if (room == null) {
+                continue;
+            }
+            Set<String> roomEquipment = RoomAssignmentService.equipmentSet(List.of(room.getEquipment().split("[,;/]")));
+            assertThat(roomEquipment).containsAll(requiredEquipment.get(request.getModuleCode()));
+            assertThat(room.getUnavailableDates()).doesNotContain(LocalDate.parse(request.getRequestedDate()));
+            assertThat(room.getUnavailableTimeSlots()).doesNotContain(request.getRequestedTimeSlot());
+            seatedByRoomSlot.merge(request.getRequestedDate() + "|" + request.getRequestedTimeSlot() + "|" + room.getId(),
+                    1, Integer::sum);
+        }
+        Map<String, LabRoom> roomsById = new HashMap<>();
+        rooms.forEach(room -> roomsById.put(room.getId(), room));
+        seatedByRoomSlot.forEach((key, seated) ->
+                assertThat(seated).as(key).isLessThanOrEqualTo(roomsById.get(key.substring(key.lastIndexOf('|') + 1)).getCapacity()));
+
+        Set<String> roomSlots = new HashSet<>();
+        for (RoomAssignmentPlanDto.Allocation allocation : plan.allocations) {
+            assertThat(roomSlots.add(allocation.getDate() + "|" + allocation.getTimeSlot() + "|" + allocation.getLabRoomId()))
+                    .as("room %s used twice at %s %s", allocation.getLabRoomNumber(), allocation.getDate(), allocation.getTimeSlot())
+                    .isTrue();
+            assertThat(allocation.getStudents()).isLessThanOrEqualTo(allocation.getCapacity());
+        }
+
+        // Every request is either placed or reported as a shortfall.
+        int unplaced = plan.shortfalls.stream().mapToInt(RoomAssignmentPlanDto.Shortfall::getStudents).sum();
+        assertThat(plan.roomByRequest.size() + unplaced).isEqualTo(requests.size());
+    }
+}
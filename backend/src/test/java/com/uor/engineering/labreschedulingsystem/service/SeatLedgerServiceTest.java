@@ -0,0 +1,195 @@
+package com.uor.engineering.labreschedulingsystem.service;
+
+import com.uor.engineering.labreschedulingsystem.MongoIntegrationTest;
+import com.uor.engineering.labreschedulingsystem.model.RequestStatus;
+import com.uor.engineering.labreschedulingsystem.model.RescheduleRequest;
+import com.uor.engineering.labreschedulingsystem.model.SeatReservation;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the ledger against a real mongod, where concurrent claims on one session are only
+ * serialised by the conditional upsert. The module codes have no Module document, so every
+ * session gets the configured default capacity.
+ */
+@SpringBootTest(properties = "app.requests.seats-per-session=" + SeatLedgerServiceTest.CAPACITY)
+class SeatLedgerServiceTest extends MongoIntegrationTest {
+
+    static final int CAPACITY = 10;
+    private static final String MODULE_PREFIX = "LEDGER-TEST-";
+
+    @Autowired
+    private SeatLedgerService seatLedgerService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void clearLedger() {
+        mongoTemplate.remove(Query.query(Criteria.where("moduleCode").regex("^" + MODULE_PREFIX)), SeatReservation.class);
+        mongoTemplate.remove(Query.query(Criteria.where("moduleCode").regex("^" + MODULE_PREFIX)), RescheduleRequest.class);
+    }
+
+    @Test
+    void concurrentClaimsNeverOverbookASession() throws Exception {
+        int claimants = CAPACITY * 8;
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>(claimants);
+            for (int i = 0; i < claimants; i++) {
+                RescheduleRequest request = request(MODULE_PREFIX + "STRESS");
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return seatLedgerService.claim(request);
+                }));
+            }
+            start.countDown();
+
+            int claimed = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    claimed++;
+                }
+            }
+
+            SeatReservation session = session(MODULE_PREFIX + "STRESS");
+            assertThat(claimed).isEqualTo(CAPACITY);
+            assertThat(session.getReserved()).isEqualTo(CAPACITY);
+            assertThat(session.getRequestIds()).hasSize(CAPACITY).doesNotHaveDuplicates();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void reclaimingForTheSameRequestDoesNotCountTwice() {
+        RescheduleRequest request = request(MODULE_PREFIX + "REPEAT");
+
+        assertThat(seatLedgerService.claim(request)).isTrue();
+        assertThat(seatLedgerService.claim(request)).isFalse();
+
+        assertThat(session(MODULE_PREFIX + "REPEAT").getReserved()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentHoldsNeverExceedTheFreeSeats() throws Exception {
+        String moduleCode = MODULE_PREFIX + "HOLDS";
+        int students = CAPACITY * 4;
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(5));
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>(students);
+            for (int i = 0; i < students; i++) {
+                String studentId = "student-" + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return seatLedgerService.hold(moduleCode, "2025-03-04", "10:00-12:00", studentId, expiresAt);
+                }));
+            }
+            start.countDown();
+
+            int held = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    held++;
+                }
+            }
+
+            assertThat(held).isEqualTo(CAPACITY);
+            assertThat(session(moduleCode).getHolds()).hasSize(CAPACITY);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void aHoldTurnsIntoTheStudentsClaimOnly() {
+        String moduleCode = MODULE_PREFIX + "CONVERT";
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(5));
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThat(seatLedgerService.hold(moduleCode, "2025-03-04", "10:00-12:00", "student-" + i, expiresAt)).isTrue();
+        }
+
+        // Every seat is held, so only a student holding one can claim it.
+        assertThat(seatLedgerService.claim(request(moduleCode), "someone-else")).isFalse();
+        assertThat(seatLedgerService.claim(request(moduleCode), "student-0")).isTrue();
+
+        SeatReservation session = session(moduleCode);
+        assertThat(session.getReserved()).isEqualTo(1);
+        assertThat(session.getHolds()).hasSize(CAPACITY - 1)
+                .noneMatch(hold -> hold.getStudentId().equals("student-0"));
+    }
+
+    @Test
+    void backfillRebuildsSessionsFromLiveRequests() {
+        String moduleCode = MODULE_PREFIX + "BACKFILL";
+        RescheduleRequest claimedEarlier = request(moduleCode);
+        List<RescheduleRequest> requests = new ArrayList<>(List.of(claimedEarlier, request(moduleCode), request(moduleCode)));
+        // Rejected after its seat was claimed, and old enough to be outside the claim grace period.
+        RescheduleRequest rejected = request(moduleCode);
+        rejected.setId(idCreatedAgo(Duration.ofHours(1)));
+        requests.add(rejected);
+        mongoTemplate.insertAll(requests);
+        // The ledger has one live request from a partial earlier run, plus the rejected one.
+        assertThat(seatLedgerService.claim(claimedEarlier)).isTrue();
+        assertThat(seatLedgerService.claim(rejected)).isTrue();
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(rejected.getId())),
+                new Update().set("status", RequestStatus.REJECTED), RescheduleRequest.class);
+        // A session whose only request has since been deleted.
+        RescheduleRequest deleted = request(moduleCode);
+        deleted.setId(idCreatedAgo(Duration.ofHours(2)));
+        deleted.setRequestedTimeSlot("13:00-15:00");
+        assertThat(seatLedgerService.claim(deleted)).isTrue();
+
+        seatLedgerService.afterSingletonsInstantiated();
+        seatLedgerService.afterSingletonsInstantiated();
+
+        SeatReservation session = session(moduleCode);
+        assertThat(session.getReserved()).isEqualTo(3);
+        assertThat(session.getRequestIds()).hasSize(3).doesNotContain(rejected.getId());
+        assertThat(session.getCapacity()).isEqualTo(CAPACITY);
+        SeatReservation emptied = mongoTemplate.findById(moduleCode + "|2025-03-04|13:00-15:00", SeatReservation.class);
+        assertThat(emptied.getReserved()).isZero();
+        assertThat(emptied.getRequestIds()).isEmpty();
+    }
+
+    private static RescheduleRequest request(String moduleCode) {
+        RescheduleRequest request = new RescheduleRequest();
+        request.setId(new ObjectId().toHexString());
+        request.setModuleCode(moduleCode);
+        request.setRequestedDate("2025-03-04");
+        request.setRequestedTimeSlot("10:00-12:00");
+        request.setStatus(RequestStatus.PENDING);
+        return request;
+    }
+
+    private static String idCreatedAgo(Duration age) {
+        return new ObjectId(Date.from(Instant.now().minus(age))).toHexString();
+    }
+
+    private SeatReservation session(String moduleCode) {
+        return mongoTemplate.findById(moduleCode + "|2025-03-04|10:00-12:00", SeatReservation.class);
+    }
+}
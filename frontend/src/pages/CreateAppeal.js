@@ -25,10 +25,8 @@ function CreateAppeal() {
 
   const fetchRejectedRequests = async () => {
     try {
-      const response = await axios.get('/api/requests');
-      const rejected = response.data.filter(request =>
-        request.status === 'REJECTED' && request.studentId === user.id
-      );
+      const response = await axios.get('/api/requests', { params: { status: 'REJECTED' } });
+      const rejected = response.data.items.filter(request => request.studentId === user.id);
       setRejectedRequests(rejected);
     } catch (error) {
       console.error('Error fetching rejected requests:', error);
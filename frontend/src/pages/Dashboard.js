@@ -24,24 +24,26 @@ function Dashboard() {
 
   const fetchDashboardData = async () => {
     try {
-      const [requestsResponse, appealsResponse] = await Promise.all([
-        axios.get('/api/requests'),
+      const [requestsResponse, statsResponse, appealsResponse] = await Promise.all([
+        axios.get('/api/requests', { params: { limit: 5 } }),
+        axios.get('/api/requests/stats'),
         axios.get('/api/appeals').catch(() => ({ data: [] })) // Handle if user doesn't have access
       ]);
 
-      const requests = requestsResponse.data;
+      const requests = requestsResponse.data.items;
+      const byStatus = statsResponse.data.byStatus || {};
       const appeals = appealsResponse.data;
 
-      // Calculate statistics
+      // Counts come from the server so that they cover every request, not just the first page
       const statistics = {
-        totalRequests: requests.length,
-        pendingRequests: requests.filter(r => r.status === 'PENDING').length,
-        approvedRequests: requests.filter(r => r.status === 'APPROVED').length,
-        rejectedRequests: requests.filter(r => r.status === 'REJECTED').length
+        totalRequests: statsResponse.data.total,
+        pendingRequests: byStatus.PENDING || 0,
+        approvedRequests: byStatus.APPROVED || 0,
+        rejectedRequests: byStatus.REJECTED || 0
       };
 
       setDashboardData({
-        recentRequests: requests.slice(0, 5),
+        recentRequests: requests,
         recentAppeals: appeals.slice(0, 5),
         statistics
       });
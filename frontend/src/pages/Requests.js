@@ -7,7 +7,9 @@ import axios from 'axios';
 function Requests() {
   const { user } = useAuth();
   const [requests, setRequests] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [showModal, setShowModal] = useState(false);
   const [selectedRequest, setSelectedRequest] = useState(null);
   const [actionType, setActionType] = useState('');
@@ -27,10 +29,12 @@ function Requests() {
     fetchRequests();
   }, []);
 
-  const fetchRequests = async () => {
+  const fetchRequests = async (cursor) => {
     try {
-      const response = await axios.get('/api/requests');
-      setRequests(response.data);
+      const response = await axios.get('/api/requests', { params: { cursor } });
+      const page = response.data;
+      setRequests(previous => (cursor ? [...previous, ...page.items] : page.items));
+      setNextCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching requests:', error);
       setError('Failed to fetch requests');
@@ -39,6 +43,12 @@ function Requests() {
     }
   };
 
+  const loadMore = async () => {
+    setLoadingMore(true);
+    await fetchRequests(nextCursor);
+    setLoadingMore(false);
+  };
+
   const handleAction = (request, type) => {
     setSelectedRequest(request);
     setActionType(type);
@@ -286,6 +296,14 @@ function Requests() {
                       ))}
                     </tbody>
                   </Table>
+                  {nextCursor && (
+                    <div className="text-center">
+                      <Button variant="outline-primary" onClick={loadMore} disabled={loadingMore}>
+                        {loadingMore && <Spinner size="sm" className="me-2" />}
+                        Load More
+                      </Button>
+                    </div>
+                  )}
                 </div>
               ) : (
                 <div className="text-center py-5">